@@ -1,63 +1,98 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
 import ru.practicum.shareit.booking.dto.BookingSaveDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ConcurrencyLimiter;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.item.ItemClient;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
+    private final ResponseCache responseCache;
+    private final ObjectMapper objectMapper;
+
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                         ResponseCache responseCache, RequestCoalescer coalescer, ConcurrencyLimiter limiter,
+                         ObjectMapper objectMapper) {
+        super(serverUrl + API_PREFIX, builder, coalescer, limiter);
+        this.responseCache = responseCache;
+        this.objectMapper = objectMapper;
     }
 
-    public ResponseEntity<Object> create(Long userId, BookingSaveDto bookingDto) {
-        return post("", userId, bookingDto);
+    public Mono<ResponseEntity<Object>> create(Long userId, BookingSaveDto bookingDto) {
+        return responseCache.invalidateOnSuccess(post("", userId, bookingDto),
+                ItemClient.itemPath(bookingDto.getItemId()));
     }
 
-    public ResponseEntity<Object> update(Long userId, Long bookingId, Boolean approved) {
+    public Mono<ResponseEntity<Object>> update(Long userId, Long bookingId, Boolean approved) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved
         );
-        return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
+        return responseCache.invalidateOnSuccess(patch("/" + bookingId + "?approved={approved}", userId,
+                parameters, null), this::bookedItemPath);
     }
 
-    public ResponseEntity<Object> getById(Long userId, Long bookingId) {
+    public Mono<ResponseEntity<Object>> getById(Long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getBookings(Long userId, BookingState state, int from, int size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getBookings(Long userId, BookingState state, int from, int size, String cursor) {
+        return getPage("", userId, state, from, size, cursor);
+    }
+
+    public Mono<ResponseEntity<Object>> getOwnerBookings(Long userId, BookingState state, int from, int size,
+                                                         String cursor) {
+        return getPage("/owner", userId, state, from, size, cursor);
     }
 
-    public ResponseEntity<Object> getOwnerBookings(Long userId, BookingState state, int from, int size) {
+    private Mono<ResponseEntity<Object>> getPage(String path, Long userId, BookingState state, int from, int size,
+                                                 String cursor) {
+        if (cursor != null) {
+            Map<String, Object> parameters = Map.of(
+                    "state", state.name(),
+                    "size", size,
+                    "cursor", cursor
+            );
+            return get(path + "?state={state}&size={size}&cursor={cursor}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
         );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        return get(path + "?state={state}&from={from}&size={size}", userId, parameters);
     }
-}
 
+    /**
+     * Ответ на подтверждение содержит бронирование вместе с вещью: сбрасывается только карточка этой вещи.
+     * Если вещь в ответе не найдена, карточка обновится по истечении ttl кэша.
+     */
+    private List<String> bookedItemPath(ResponseEntity<Object> response) {
+        if (!(response.getBody() instanceof byte[])) {
+            return List.of();
+        }
+        try {
+            JsonNode itemId = objectMapper.readTree((byte[]) response.getBody()).path("item").path("id");
+            return itemId.canConvertToLong() ? List.of(ItemClient.itemPath(itemId.asLong())) : List.of();
+        } catch (IOException e) {
+            return List.of();
+        }
+    }
+}
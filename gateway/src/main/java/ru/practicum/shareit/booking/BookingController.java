@@ -6,10 +6,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingSaveDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 
@@ -22,53 +24,55 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @PostMapping
-    public ResponseEntity<Object> createNewBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                   @Valid @RequestBody BookingSaveDto bookingDto) {
+    public Mono<ResponseEntity<Object>> createNewBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                         @Valid @RequestBody BookingSaveDto bookingDto) {
         log.info("Получен POST-запрос на бронирование пользователем с ID={}", userId);
         return bookingClient.create(userId, bookingDto);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> updateStatus(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                               @PathVariable Long bookingId,
-                                               @RequestParam Boolean approved) {
+    public Mono<ResponseEntity<Object>> updateStatus(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                     @PathVariable Long bookingId,
+                                                     @RequestParam Boolean approved) {
         log.info("Получен PATCH-запрос пользователя с ID={} на подтверждение или отклонение запроса " +
                 "на бронирование вещи владельцем с ID={}", bookingId, userId);
         return bookingClient.update(userId, bookingId, approved);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBookingById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                 @PathVariable Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBookingById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                       @PathVariable Long bookingId) {
         log.info("Получен GET-запрос на получение данных о бронировании с ID={} пользователем с ID={}",
                 bookingId, userId);
         return bookingClient.getById(userId, bookingId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                              @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
-                                              @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") int from,
-                                              @Positive @RequestParam(name = "size", defaultValue = "10") int size) {
+    public Mono<ResponseEntity<Object>> getBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                    @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
+                                                    @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") int from,
+                                                    @Positive @Max(1000) @RequestParam(name = "size", defaultValue = "10") int size,
+                                                    @RequestParam(name = "cursor", required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
         log.info("Получен GET-запрос на получение списка всех бронирований пользователя при state {}, userId={}, " +
-                "from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getBookings(userId, state, from, size);
+                "from={}, size={}, cursor={}", stateParam, userId, from, size, cursor);
+        return bookingClient.getBookings(userId, state, from, size, cursor);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                   @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
-                                                   @PositiveOrZero @RequestParam(name = "from", defaultValue = "0")
-                                                   int from,
-                                                   @Positive @RequestParam(name = "size", defaultValue = "10")
-                                                   int size) {
+    public Mono<ResponseEntity<Object>> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                         @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
+                                                         @PositiveOrZero @RequestParam(name = "from", defaultValue = "0")
+                                                         int from,
+                                                         @Positive @Max(1000) @RequestParam(name = "size", defaultValue = "10")
+                                                         int size,
+                                                         @RequestParam(name = "cursor", required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
         log.info("Получен GET-запрос на получение списка всех бронирований пользователя (владельца)" +
-                " при state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getOwnerBookings(userId, state, from, size);
+                " при state {}, userId={}, from={}, size={}, cursor={}", stateParam, userId, from, size, cursor);
+        return bookingClient.getOwnerBookings(userId, state, from, size, cursor);
     }
 
 }
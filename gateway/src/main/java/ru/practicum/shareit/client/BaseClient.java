@@ -1,98 +1,178 @@
 package ru.practicum.shareit.client;
 
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.*;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
-
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.util.UriBuilderFactory;
+import org.springframework.web.util.pattern.PathPattern;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+import ru.practicum.shareit.exception.ErrorResponse;
+
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
 
 public class BaseClient {
-    protected final RestTemplate rest;
-
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
-    }
-
-    protected ResponseEntity<Object> get(String path) {
+    private static final List<String> RELAYED_HEADERS = List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.CACHE_CONTROL,
+            HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED, HttpHeaders.LOCATION, "X-Next-Cursor");
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    protected final WebClient rest;
+    private final String basePath;
+    private final UriBuilderFactory uriBuilderFactory;
+    private final RequestCoalescer coalescer;
+    private final ConcurrencyLimiter limiter;
+
+    public BaseClient(String baseUrl, WebClient.Builder builder, RequestCoalescer coalescer,
+                      ConcurrencyLimiter limiter) {
+        this.basePath = URI.create(baseUrl).getPath();
+        this.uriBuilderFactory = new DefaultUriBuilderFactory(baseUrl);
+        this.rest = builder.uriBuilderFactory(uriBuilderFactory).build();
+        this.coalescer = coalescer;
+        this.limiter = limiter;
+    }
+
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    /**
+     * Одинаковые одновременные GET-запросы (тот же адрес и тот же пользователь) уходят на сервер один раз.
+     */
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        URI uri = uriBuilderFactory.expand(path, parameters != null ? parameters : Map.of());
+        return coalescer.execute(new RequestCoalescer.Key(HttpMethod.GET, uri, userId),
+                () -> makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null));
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String,
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String,
             Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, Long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, Long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, Long userId, @Nullable Map<String,
+    protected <T> Mono<ResponseEntity<Object>> put(String path, Long userId, @Nullable Map<String,
             Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId,
-                                               @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId,
+                                                     @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId,
-                                                          @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+    /**
+     * Отдает тело ответа сервера частями по мере получения, без разбора JSON, чтобы большие выгрузки
+     * не собирались в памяти шлюза.
+     */
+    protected Flux<DataBuffer> stream(String path) {
+        return rest.get()
+                .uri(path)
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .bodyToFlux(DataBuffer.class);
+    }
+
+    /**
+     * Передает клиенту тело ответа сервера байтами, без разбора JSON, вместе с заголовками из RELAYED_HEADERS.
+     * Ответы с ошибкой передаются так же. Если маршрут исчерпал лимит одновременных запросов, клиент сразу
+     * получает 503, а сервер не вызывается.
+     */
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId,
+                                                                @Nullable Map<String, Object> parameters,
+                                                                @Nullable T body) {
+        return Mono.deferContextual(context -> limiter.acquire(route(method, path, context))
+                .map(permit -> send(method, path, userId, parameters, body)
+                        .doOnNext(response -> {
+                            if (response.getStatusCode().is5xxServerError()) {
+                                permit.dropped();
+                            } else {
+                                permit.success();
+                            }
+                        })
+                        .doOnError(e -> permit.dropped())
+                        .doOnCancel(permit::ignore))
+                .orElseGet(() -> Mono.just(overloaded())));
+    }
+
+    private <T> Mono<ResponseEntity<Object>> send(HttpMethod method, String path, Long userId,
+                                                  @Nullable Map<String, Object> parameters, @Nullable T body) {
+        WebClient.RequestBodySpec request = rest.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(defaultHeaders(userId)));
+        WebClient.RequestHeadersSpec<?> spec = body != null ? request.bodyValue(body) : request;
+        return spec.exchangeToMono(response -> response.toEntity(byte[].class))
+                .map(response -> relay(response.getStatusCode(), response.getHeaders(), response.getBody()));
+    }
+
+    /**
+     * Маршрут для лимита: метод и шаблон пути контроллера шлюза, например GET /items/{itemId}, поэтому число
+     * маршрутов не зависит от значений в пути. Вне обработки запроса шлюза шаблона нет, тогда берется путь
+     * без строки запроса, где числовые идентификаторы заменены на {id}.
+     */
+    private String route(HttpMethod method, String path, ContextView context) {
+        Optional<PathPattern> pattern = context.<ServerWebExchange>getOrEmpty(ServerWebExchange.class)
+                .map(exchange -> exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+        if (pattern.isPresent()) {
+            return method + " " + pattern.get().getPatternString();
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        int query = path.indexOf('?');
+        String route = query < 0 ? path : path.substring(0, query);
+        return method + " " + basePath + ID_SEGMENT.matcher(route).replaceAll("/{id}");
+    }
+
+    private static ResponseEntity<Object> overloaded() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorResponse("Сервер перегружен, повторите запрос позже."));
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -105,17 +185,17 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+    private static ResponseEntity<Object> relay(HttpStatus status, @Nullable HttpHeaders serverHeaders,
+                                                @Nullable byte[] body) {
+        HttpHeaders headers = new HttpHeaders();
+        if (serverHeaders != null) {
+            for (String name : RELAYED_HEADERS) {
+                List<String> values = serverHeaders.get(name);
+                if (values != null) {
+                    headers.put(name, values);
+                }
+            }
         }
-
-        return responseBuilder.build();
+        return new ResponseEntity<>(body, headers, status);
     }
 }
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "shareit-server.coalescing")
+public class CoalescingProperties {
+    /**
+     * Объединять одинаковые одновременные GET-запросы к серверу в один.
+     */
+    private boolean enabled = true;
+    /**
+     * Сколько запрос ждет ответа на такой же запрос, уже отправленный другим потоком.
+     * После этого он идет на сервер сам.
+     */
+    private Duration waitTimeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "shareit-server.concurrency-limit")
+public class ConcurrencyLimitProperties {
+    /**
+     * Ограничивать число одновременных запросов к серверу по каждому маршруту. По умолчанию выключено:
+     * до первых замеров лимит равен initialLimit, и всплеск запросов к исправному серверу получил бы 503.
+     */
+    private boolean enabled = false;
+    /**
+     * Лимит маршрута до первых замеров.
+     */
+    private int initialLimit = 20;
+    /**
+     * Ниже этого лимит не опускается, даже если сервер отвечает очень медленно.
+     */
+    private int minLimit = 4;
+    /**
+     * Выше этого лимит не поднимается.
+     */
+    private int maxLimit = 200;
+    /**
+     * Во сколько раз время ответа может превысить обычное, прежде чем лимит начнет снижаться.
+     */
+    private double rttTolerance = 1.5;
+    /**
+     * Доля нового значения при сглаживании лимита.
+     */
+    private double smoothing = 0.2;
+    /**
+     * За сколько ответов обычное время ответа подстраивается под новое.
+     */
+    private int longWindow = 600;
+    /**
+     * Во сколько раз лимит уменьшается после ошибки или ответа 5xx.
+     */
+    private double backoffRatio = 0.9;
+}
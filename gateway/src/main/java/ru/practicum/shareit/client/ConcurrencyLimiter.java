@@ -0,0 +1,124 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Адаптивные лимиты одновременных запросов шлюза к серверу, по одному на маршрут (метод и шаблон пути,
+ * см. BaseClient). Запрос сверх лимита сразу получает отказ, а не ждет в очереди к пулу соединений.
+ * Состояние публикуется по маршрутам: gateway.concurrency.limit, gateway.concurrency.in_flight,
+ * gateway.concurrency.rtt (обычное время ответа, мс) и gateway.concurrency.requests с тегом result:
+ * accepted, rejected или dropped (ошибка или 5xx).
+ */
+@Component
+public class ConcurrencyLimiter {
+    private final ConcurrencyLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Route> routes = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimiter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Занимает место в лимите маршрута. Пустой результат означает, что запрос нужно отклонить.
+     */
+    public Optional<Permit> acquire(String route) {
+        if (!properties.isEnabled()) {
+            return Optional.of(new Permit(null));
+        }
+        Route state = routes.computeIfAbsent(route, this::register);
+        if (!state.limit.tryAcquire()) {
+            state.rejected.increment();
+            return Optional.empty();
+        }
+        state.accepted.increment();
+        return Optional.of(new Permit(state));
+    }
+
+    private Route register(String route) {
+        GradientLimit limit = new GradientLimit(properties);
+        Gauge.builder("gateway.concurrency.limit", limit, GradientLimit::getLimit)
+                .tag("route", route)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.in_flight", limit, GradientLimit::getInFlight)
+                .tag("route", route)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.rtt", limit, l -> l.getLongRtt() / TimeUnit.MILLISECONDS.toNanos(1))
+                .tag("route", route)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        return new Route(limit,
+                meterRegistry.counter("gateway.concurrency.requests", "route", route, "result", "accepted"),
+                meterRegistry.counter("gateway.concurrency.requests", "route", route, "result", "rejected"),
+                meterRegistry.counter("gateway.concurrency.requests", "route", route, "result", "dropped"));
+    }
+
+    @AllArgsConstructor
+    private static class Route {
+        private final GradientLimit limit;
+        private final Counter accepted;
+        private final Counter rejected;
+        private final Counter dropped;
+    }
+
+    /**
+     * Место в лимите, занятое одним запросом. Освобождается один раз, первым из вызовов success, dropped
+     * или ignore.
+     */
+    public static class Permit {
+        private final Route route;
+        private final long start = System.nanoTime();
+        private final int inFlightAtStart;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Route route) {
+            this.route = route;
+            this.inFlightAtStart = route == null ? 0 : route.limit.getInFlight();
+        }
+
+        /**
+         * Сервер ответил: время ответа учитывается при расчете лимита.
+         */
+        public void success() {
+            if (release()) {
+                route.limit.onSample(System.nanoTime() - start, inFlightAtStart);
+            }
+        }
+
+        /**
+         * Сервер не ответил или ответил 5xx: лимит уменьшается.
+         */
+        public void dropped() {
+            if (release()) {
+                route.dropped.increment();
+                route.limit.onDropped();
+            }
+        }
+
+        /**
+         * Запрос отменен клиентом шлюза: место освобождается без замера.
+         */
+        public void ignore() {
+            release();
+        }
+
+        private boolean release() {
+            if (route == null || !released.compareAndSet(false, true)) {
+                return false;
+            }
+            route.limit.release();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.client;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Лимит одновременных запросов одного маршрута, подстраиваемый по времени ответа (градиентный алгоритм).
+ * Обычное время ответа сервера отслеживается скользящим средним за longWindow ответов. Пока текущий ответ
+ * укладывается в rttTolerance от обычного, лимит растет на корень из себя, а когда сервер замедляется,
+ * лимит умножается на отношение обычного времени к текущему, но не меньше чем вдвое за шаг. Ошибки
+ * и ответы 5xx уменьшают лимит в backoffRatio раз. Лимит растет только тогда, когда он занят хотя бы
+ * наполовину, иначе малая нагрузка раздувала бы его без проверки.
+ */
+class GradientLimit {
+    private final ConcurrencyLimitProperties properties;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private double longRtt;
+
+    GradientLimit(ConcurrencyLimitProperties properties) {
+        this.properties = properties;
+        this.limit = properties.getInitialLimit();
+    }
+
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    synchronized void onSample(long rtt, int inFlightAtStart) {
+        if (longRtt == 0) {
+            longRtt = rtt;
+        } else {
+            longRtt += (rtt - longRtt) / properties.getLongWindow();
+        }
+        // После долгого замедления обычное время успевает вырасти. Когда сервер снова отвечает быстро,
+        // его нужно вернуть вниз быстрее, чем за longWindow ответов, иначе лимит долго остается завышенным.
+        if (longRtt / rtt > 2) {
+            longRtt *= 0.95;
+        }
+        if (inFlightAtStart < limit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, properties.getRttTolerance() * longRtt / rtt));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        update(limit * (1 - properties.getSmoothing()) + newLimit * properties.getSmoothing());
+    }
+
+    synchronized void onDropped() {
+        update(limit * properties.getBackoffRatio());
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    double getLimit() {
+        return limit;
+    }
+
+    synchronized double getLongRtt() {
+        return longRtt;
+    }
+
+    private void update(double newLimit) {
+        limit = Math.max(properties.getMinLimit(), Math.min(properties.getMaxLimit(), newLimit));
+    }
+}
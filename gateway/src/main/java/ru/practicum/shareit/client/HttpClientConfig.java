@@ -0,0 +1,40 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Один неблокирующий пул соединений с сервером на все клиенты шлюза. Ожидание ответа сервера не занимает
+ * поток: запросы обслуживаются несколькими потоками цикла событий Netty. Метрики пула публикуются как
+ * reactor.netty.connection.provider.* с тегом name=shareit-server.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shareItConnectionProvider(HttpClientProperties properties) {
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(properties.getMaxConnections())
+                .pendingAcquireMaxCount(properties.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(properties.getPendingAcquireTimeout())
+                .maxIdleTime(properties.getMaxIdle())
+                .maxLifeTime(properties.getMaxLife())
+                .evictInBackground(properties.getMaxIdle())
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public ClientHttpConnector shareItHttpConnector(ConnectionProvider shareItConnectionProvider,
+                                                    HttpClientProperties properties) {
+        HttpClient httpClient = HttpClient.create(shareItConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getReadTimeout());
+        return new ReactorClientHttpConnector(httpClient);
+    }
+}
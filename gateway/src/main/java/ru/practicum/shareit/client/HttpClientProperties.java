@@ -0,0 +1,43 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "shareit-server.http-client")
+public class HttpClientProperties {
+    /**
+     * Наибольшее число соединений с сервером у всех клиентов шлюза вместе.
+     */
+    private int maxConnections = 500;
+    /**
+     * Сколько запросов может ждать свободного соединения. Остальные сразу получают ошибку.
+     */
+    private int pendingAcquireMaxCount = 10_000;
+    /**
+     * Сколько ждать свободного соединения в пуле. Превышение означает, что пул исчерпан.
+     */
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(1);
+    /**
+     * Сколько ждать установки TCP-соединения.
+     */
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    /**
+     * Сколько ждать ответа сервера.
+     */
+    private Duration readTimeout = Duration.ofSeconds(10);
+    /**
+     * Простаивающие дольше соединения закрываются.
+     */
+    private Duration maxIdle = Duration.ofSeconds(30);
+    /**
+     * Соединение старше этого возраста закрывается после текущего запроса.
+     */
+    private Duration maxLife = Duration.ofMinutes(5);
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Объединяет одинаковые GET-запросы, которые выполняются одновременно: на сервер уходит только первый,
+ * остальные ждут его ответ. Не дождавшиеся за waitTimeout, а также ждавшие запрос, от которого отказался
+ * его клиент, идут на сервер сами. Число запросов по исходу публикуется как gateway.coalescing.requests
+ * с тегом result: leader, joined (сэкономленный вызов) или timeout.
+ */
+@Slf4j
+@Component
+public class RequestCoalescer {
+    private final boolean enabled;
+    private final Duration waitTimeout;
+    private final ConcurrentMap<Key, CompletableFuture<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter joined;
+    private final Counter timeouts;
+
+    public RequestCoalescer(CoalescingProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.waitTimeout = properties.getWaitTimeout();
+        this.leaders = meterRegistry.counter("gateway.coalescing.requests", "result", "leader");
+        this.joined = meterRegistry.counter("gateway.coalescing.requests", "result", "joined");
+        this.timeouts = meterRegistry.counter("gateway.coalescing.requests", "result", "timeout");
+        meterRegistry.gaugeMapSize("gateway.coalescing.in_flight", Tags.empty(), inFlight);
+    }
+
+    public Mono<ResponseEntity<Object>> execute(Key key, Supplier<Mono<ResponseEntity<Object>>> request) {
+        if (!enabled) {
+            return request.get();
+        }
+        return Mono.defer(() -> {
+            CompletableFuture<ResponseEntity<Object>> own = new CompletableFuture<>();
+            CompletableFuture<ResponseEntity<Object>> current = inFlight.putIfAbsent(key, own);
+            if (current == null) {
+                leaders.increment();
+                return lead(key, own, request.get());
+            }
+            // Ждем копию, чтобы отмена ожидания по таймауту не отменяла ответ для остальных.
+            return Mono.fromFuture(current.copy())
+                    .doOnNext(response -> joined.increment())
+                    .timeout(waitTimeout, Mono.defer(() -> {
+                        timeouts.increment();
+                        log.debug("Не дождались ответа на {}, запрос уходит на сервер отдельно", key);
+                        return request.get();
+                    }))
+                    .onErrorResume(CancellationException.class, e -> request.get());
+        });
+    }
+
+    private Mono<ResponseEntity<Object>> lead(Key key, CompletableFuture<ResponseEntity<Object>> own,
+                                              Mono<ResponseEntity<Object>> request) {
+        return request
+                .doOnNext(own::complete)
+                .doOnError(own::completeExceptionally)
+                .doFinally(signal -> {
+                    inFlight.remove(key, own);
+                    own.cancel(false);
+                });
+    }
+
+    @Value
+    public static class Key {
+        HttpMethod method;
+        URI uri;
+        @Nullable
+        Long userId;
+    }
+}
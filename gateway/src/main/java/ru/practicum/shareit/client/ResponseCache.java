@@ -0,0 +1,166 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Кэш успешных ответов сервера на часто читаемые GET-запросы. Ключ состоит из пути, строки запроса и,
+ * если ответ зависит от того, кто смотрит, идентификатора пользователя. Клиенты сбрасывают после успешных
+ * изменений затронутые пути: ключи каждого пути хранятся в отдельном индексе, поэтому сброс не обходит весь
+ * кэш. Статистика публикуется как cache.* с тегом cache=gateway.responses.
+ * <p>
+ * Каждый сброс получает очередной номер поколения, который запоминается для пути. Ответ на GET, начатый до
+ * сброса своего пути и завершившийся после него, в кэш не попадает. Номера сбросов хранятся для не более чем
+ * maxSize путей: номер вытесненного пути поднимает общую нижнюю границу, и ответы на запросы, начатые до нее,
+ * тоже не кэшируются.
+ */
+@Component
+public class ResponseCache {
+    private final boolean enabled;
+    private final Cache<Key, ResponseEntity<Object>> responses;
+    private final Map<String, Set<Key>> keysByPath = new ConcurrentHashMap<>();
+    private final Cache<String, Long> invalidatedPaths;
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong invalidatedBefore = new AtomicLong();
+
+    public ResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .evictionListener((Key key, ResponseEntity<Object> response, RemovalCause cause) -> unindex(key))
+                .recordStats()
+                .build();
+        this.invalidatedPaths = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .evictionListener((String path, Long invalidated, RemovalCause cause) ->
+                        invalidatedBefore.accumulateAndGet(invalidated, Math::max))
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "gateway.responses");
+    }
+
+    public static Key key(String path, @Nullable Map<String, Object> parameters, @Nullable Long userId) {
+        return new Key(path, parameters == null ? "" : new TreeMap<>(parameters).toString(), userId);
+    }
+
+    public Mono<ResponseEntity<Object>> get(Key key, Supplier<Mono<ResponseEntity<Object>>> request) {
+        if (!enabled) {
+            return request.get();
+        }
+        return Mono.defer(() -> {
+            ResponseEntity<Object> cached = responses.getIfPresent(key);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            long started = generation.get();
+            return request.get().doOnNext(response -> {
+                if (response.getStatusCode().is2xxSuccessful()) {
+                    store(key, response, started);
+                }
+            });
+        });
+    }
+
+    /**
+     * Сбрасывает ответы по путям, если ответ на изменение успешный, и возвращает этот ответ.
+     */
+    public Mono<ResponseEntity<Object>> invalidateOnSuccess(Mono<ResponseEntity<Object>> response,
+                                                            String... paths) {
+        return invalidateOnSuccess(response, entity -> List.of(paths));
+    }
+
+    /**
+     * То же, но пути вычисляются по успешному ответу, например по вещи из тела ответа.
+     */
+    public Mono<ResponseEntity<Object>> invalidateOnSuccess(Mono<ResponseEntity<Object>> response,
+                                                            Function<ResponseEntity<Object>,
+                                                                    Collection<String>> paths) {
+        if (!enabled) {
+            return response;
+        }
+        return response.doOnNext(entity -> {
+            if (entity.getStatusCode().is2xxSuccessful()) {
+                paths.apply(entity).forEach(this::invalidate);
+            }
+        });
+    }
+
+    /**
+     * Сбрасывает весь кэш, если ответ на изменение успешный.
+     */
+    public Mono<ResponseEntity<Object>> invalidateAllOnSuccess(Mono<ResponseEntity<Object>> response) {
+        if (!enabled) {
+            return response;
+        }
+        return response.doOnNext(entity -> {
+            if (entity.getStatusCode().is2xxSuccessful()) {
+                invalidatedBefore.accumulateAndGet(generation.incrementAndGet(), Math::max);
+                responses.invalidateAll();
+                keysByPath.clear();
+            }
+        });
+    }
+
+    /**
+     * Ключ попадает в индекс пути раньше, чем ответ в кэш, а сброс сначала запоминает номер и только потом
+     * удаляет ключи пути. Поэтому сброс, пришедший во время сохранения, либо найдет ключ в индексе, либо будет
+     * замечен проверкой после сохранения. Ключ удаленного так ответа остается в индексе до следующего сброса
+     * пути: иначе он мог бы пропасть из индекса вместе с ответом параллельного запроса, начатого после сброса.
+     */
+    private void store(Key key, ResponseEntity<Object> response, long started) {
+        index(key);
+        responses.put(key, response);
+        if (isInvalidatedSince(key.getPath(), started)) {
+            responses.invalidate(key);
+        }
+    }
+
+    private boolean isInvalidatedSince(String path, long started) {
+        Long invalidated = invalidatedPaths.getIfPresent(path);
+        return invalidatedBefore.get() > started || invalidated != null && invalidated > started;
+    }
+
+    private void invalidate(String path) {
+        invalidatedPaths.put(path, generation.incrementAndGet());
+        Set<Key> keys = keysByPath.remove(path);
+        if (keys != null) {
+            responses.invalidateAll(keys);
+        }
+    }
+
+    private void index(Key key) {
+        keysByPath.computeIfAbsent(key.getPath(), path -> ConcurrentHashMap.newKeySet()).add(key);
+    }
+
+    private void unindex(Key key) {
+        keysByPath.computeIfPresent(key.getPath(), (path, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    @Value
+    public static class Key {
+        String path;
+        String query;
+        Long userId;
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "shareit-server.response-cache")
+public class ResponseCacheProperties {
+    /**
+     * Кэшировать в шлюзе ответы на GET /items/{id}, /items/search и /requests/all.
+     */
+    private boolean enabled = false;
+    /**
+     * Наибольшее число ответов в кэше, лишние вытесняются давно не использованные.
+     */
+    private long maxSize = 10_000;
+    /**
+     * Сколько ответ живет в кэше. Ограничивает устаревание после изменений, прошедших мимо шлюза.
+     */
+    private Duration ttl = Duration.ofSeconds(30);
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * Кладет обрабатываемый запрос в контекст Reactor. По нему клиенты сервера узнают шаблон пути контроллера,
+ * который Spring выбирает уже после фильтров, и считают лимит одновременных запросов по шаблону.
+ */
+@Component
+public class RouteContextFilter implements WebFilter {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        return chain.filter(exchange).contextWrite(Context.of(ServerWebExchange.class, exchange));
+    }
+}
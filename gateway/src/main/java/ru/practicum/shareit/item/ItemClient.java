@@ -2,33 +2,44 @@ package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ConcurrencyLimiter;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @Service
 public class ItemClient extends BaseClient {
 
     private static final String API_PREFIX = "/items";
+    private static final String SEARCH_PATH = API_PREFIX + "/search";
+    private static final String REQUEST_FEED_PATH = "/requests/all";
+
+    private final ResponseCache responseCache;
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                      ResponseCache responseCache, RequestCoalescer coalescer, ConcurrencyLimiter limiter) {
+        super(serverUrl + API_PREFIX, builder, coalescer, limiter);
+        this.responseCache = responseCache;
     }
 
-    public ResponseEntity<Object> getItems(int from, int size, Long userId) {
+    public Mono<ResponseEntity<Object>> getItems(int from, int size, String cursor, Long userId) {
+        if (cursor != null) {
+            Map<String, Object> parameters = Map.of(
+                    "size", size,
+                    "cursor", cursor
+            );
+            return get("?size={size}&cursor={cursor}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -36,29 +47,49 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> create(ItemDto itemDto, Long userId) {
-        return post("", userId, itemDto);
+    public Mono<ResponseEntity<Object>> create(ItemDto itemDto, Long userId) {
+        if (itemDto.getRequestId() != null) {
+            return responseCache.invalidateOnSuccess(post("", userId, itemDto), SEARCH_PATH, REQUEST_FEED_PATH);
+        }
+        return responseCache.invalidateOnSuccess(post("", userId, itemDto), SEARCH_PATH);
     }
 
-    public ResponseEntity<Object> update(Long userId, Long itemId, ItemDto itemDto) {
-        return patch("/" + itemId, userId, itemDto);
+    public Mono<ResponseEntity<Object>> update(Long userId, Long itemId, ItemDto itemDto) {
+        return responseCache.invalidateOnSuccess(patch("/" + itemId, userId, itemDto),
+                itemPath(itemId), SEARCH_PATH, REQUEST_FEED_PATH);
     }
 
-    public ResponseEntity<Object> getItemById(Long userId, Long itemId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<Object>> getItemById(Long userId, Long itemId) {
+        return responseCache.get(ResponseCache.key(itemPath(itemId), null, userId),
+                () -> get("/" + itemId, userId));
     }
 
-    public ResponseEntity<Object> searchItem(Long userId, String text, int from, int size) {
+    public Mono<ResponseEntity<Object>> searchItem(Long userId, String text, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        // Сервер ищет только по тексту и не получает userId, поэтому выдача одна для всех и ключ без пользователя.
+        return responseCache.get(ResponseCache.key(SEARCH_PATH, parameters, null),
+                () -> get("/search?text={text}&from={from}&size={size}", userId, parameters));
+    }
+
+    public Mono<ResponseEntity<Object>> getAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> createComment(Long userId, Long itemId, CommentDto commentDto) {
+        return responseCache.invalidateOnSuccess(post("/" + itemId + "/comment", userId, commentDto),
+                itemPath(itemId));
     }
 
-    public ResponseEntity<Object> createComment(Long userId, Long itemId, CommentDto commentDto) {
-        return post("/" + itemId + "/comment", userId, commentDto);
+    public static String itemPath(Long itemId) {
+        return API_PREFIX + "/" + itemId;
     }
 
 }
@@ -0,0 +1,145 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.exception.ErrorResponse;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Ограничивает частоту запросов каждого пользователя (X-Sharer-User-Id) отдельно по каждому классу запросов
+ * из shareit-server.rate-limit.routes. Лишние запросы получают 429 с заголовком Retry-After и не доходят
+ * ни до контроллера, ни до сервера. Корзины хранятся в ограниченном кэше и удаляются после простоя.
+ * Решения считаются в gateway.rate_limit.requests с тегами route и result (allowed или rejected).
+ */
+@Slf4j
+@Component
+public class RateLimitFilter implements WebFilter {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final boolean enabled;
+    private final List<LimitedRoute> routes;
+    private final Cache<Key, TokenBucket> buckets;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        this.enabled = properties.isEnabled();
+        this.routes = properties.getRoutes().entrySet().stream()
+                .map(LimitedRoute::of)
+                .collect(Collectors.toList());
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxBuckets())
+                .expireAfterAccess(properties.getIdleTimeout())
+                .build();
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!enabled) {
+            return chain.filter(exchange);
+        }
+        Long userId = userId(exchange);
+        LimitedRoute route = route(exchange);
+        if (userId == null || route == null) {
+            return chain.filter(exchange);
+        }
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(new Key(route.getName(), userId),
+                key -> new TokenBucket(route.getCapacity(), route.getRefillPerSecond(), now));
+        long wait = bucket.tryAcquire(now);
+        if (wait == 0) {
+            meterRegistry.counter("gateway.rate_limit.requests", "route", route.getName(), "result", "allowed")
+                    .increment();
+            return chain.filter(exchange);
+        }
+        meterRegistry.counter("gateway.rate_limit.requests", "route", route.getName(), "result", "rejected")
+                .increment();
+        log.debug("Пользователь с ID={} превысил лимит запросов {}", userId, route.getName());
+        return reject(exchange.getResponse(), wait);
+    }
+
+    private LimitedRoute route(ServerWebExchange exchange) {
+        for (LimitedRoute route : routes) {
+            if (route.matches(exchange)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private static Long userId(ServerWebExchange exchange) {
+        String header = exchange.getRequest().getHeaders().getFirst(USER_HEADER);
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private Mono<Void> reject(ServerHttpResponse response, long waitNanos) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(new ErrorResponse("Слишком много запросов, повторите позже."));
+        } catch (JsonProcessingException e) {
+            body = new byte[0];
+        }
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER,
+                String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L))));
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    @Value
+    private static class Key {
+        String route;
+        long userId;
+    }
+
+    @Value
+    private static class LimitedRoute {
+        String name;
+        HttpMethod method;
+        PathPattern pattern;
+        int capacity;
+        double refillPerSecond;
+
+        static LimitedRoute of(Map.Entry<String, RateLimitProperties.Route> entry) {
+            RateLimitProperties.Route route = entry.getValue();
+            return new LimitedRoute(entry.getKey(), route.getMethod(),
+                    PathPatternParser.defaultInstance.parse(route.getPath()),
+                    route.getCapacity(), route.getRefillPerSecond());
+        }
+
+        boolean matches(ServerWebExchange exchange) {
+            return method == exchange.getRequest().getMethod()
+                    && pattern.matches(exchange.getRequest().getPath().pathWithinApplication());
+        }
+    }
+}
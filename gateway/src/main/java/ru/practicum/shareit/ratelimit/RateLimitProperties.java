@@ -0,0 +1,73 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.Valid;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@Component
+@Validated
+@ConfigurationProperties(prefix = "shareit-server.rate-limit")
+public class RateLimitProperties {
+    /**
+     * Ограничивать частоту запросов пользователей. По умолчанию выключено: включение меняет поведение API
+     * для существующих клиентов, которые начнут получать 429.
+     */
+    private boolean enabled = false;
+    /**
+     * Наибольшее число корзин (пользователь и класс запросов) в памяти шлюза.
+     */
+    @Positive
+    private long maxBuckets = 100_000;
+    /**
+     * Корзина, к которой так долго не обращались, удаляется. Новая корзина создается полной.
+     */
+    @NotNull
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    /**
+     * Классы запросов с лимитами. Запросы, не попавшие ни в один класс, не ограничиваются.
+     */
+    @Valid
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Route {
+        /**
+         * HTTP-метод запроса.
+         */
+        @NotNull
+        private HttpMethod method = HttpMethod.GET;
+        /**
+         * Шаблон пути запроса, например /items/search или /bookings/{bookingId}.
+         */
+        @NotBlank
+        private String path;
+        /**
+         * Сколько запросов пользователь может сделать подряд без ожидания. Вместе с нижней границей
+         * refillPerSecond ограничено так, чтобы запас корзины в наносекундах умещался в long.
+         */
+        @Positive
+        @Max(1_000_000)
+        private int capacity = 20;
+        /**
+         * Сколько запросов в секунду добавляется в корзину, не меньше одного запроса за 1000 секунд.
+         */
+        @DecimalMin("0.001")
+        private double refillPerSecond = 5;
+    }
+}
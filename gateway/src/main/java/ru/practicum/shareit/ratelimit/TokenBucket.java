@@ -0,0 +1,38 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Корзина токенов без блокировок. Вместо числа токенов хранится теоретическое время следующего запроса
+ * (алгоритм GCRA): каждый запрос сдвигает его на интервал пополнения, а запрос отклоняется, если это время
+ * ушло вперед больше чем на емкость корзины. Поведение то же, что у корзины токенов, но состояние
+ * умещается в один AtomicLong и обновляется через compareAndSet.
+ */
+class TokenBucket {
+    private final long interval;
+    private final long tolerance;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(int capacity, double refillPerSecond, long now) {
+        this.interval = (long) (1_000_000_000L / refillPerSecond);
+        this.tolerance = interval * (Math.max(1, capacity) - 1);
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    /**
+     * Забирает токен. Возвращает 0, если запрос разрешен, иначе сколько наносекунд ждать следующего токена.
+     */
+    long tryAcquire(long now) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long arrival = Math.max(current, now);
+            long wait = arrival - tolerance - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, arrival + interval)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -2,12 +2,14 @@ package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ConcurrencyLimiter;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.request.dto.ItemRequestSaveDto;
 
 import java.util.Map;
@@ -17,34 +19,61 @@ public class ItemRequestClient extends BaseClient {
 
     private static final String API_PREFIX = "/requests";
 
+    private final ResponseCache responseCache;
+
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                             ResponseCache responseCache, RequestCoalescer coalescer, ConcurrencyLimiter limiter) {
+        super(serverUrl + API_PREFIX, builder, coalescer, limiter);
+        this.responseCache = responseCache;
+    }
+
+    public Mono<ResponseEntity<Object>> getItemRequests(int from, int size, String cursor, Long userId) {
+        if (cursor != null) {
+            Map<String, Object> parameters = Map.of(
+                    "size", size,
+                    "cursor", cursor
+            );
+            return responseCache.get(ResponseCache.key(API_PREFIX + "/all", parameters, userId),
+                    () -> get("/all?size={size}&cursor={cursor}", userId, parameters));
+        }
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size
         );
+        return responseCache.get(ResponseCache.key(API_PREFIX + "/all", parameters, userId),
+                () -> get("/all?from={from}&size={size}", userId, parameters));
     }
 
-    public ResponseEntity<Object> getItemRequests(int from, int size, Long userId) {
+    public Mono<ResponseEntity<Object>> getSuggestions(int from, int size, Long userId) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return get("/all?from={from}&size={size}", userId, parameters);
+        return get("/suggestions?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> create(Long userId, ItemRequestSaveDto itemRequestDto) {
-        return post("", userId, itemRequestDto);
+    public Mono<ResponseEntity<Object>> create(Long userId, ItemRequestSaveDto itemRequestDto) {
+        return responseCache.invalidateOnSuccess(post("", userId, itemRequestDto), API_PREFIX + "/all");
     }
 
-    public ResponseEntity<Object> getItemRequestById(Long userId, Long requestId) {
+    public Mono<ResponseEntity<Object>> getItemRequestById(Long userId, Long requestId) {
         return get("/" + requestId, userId);
     }
 
-    public ResponseEntity<Object> getItemRequestsWithResponses(Long userId) {
-        return get("", userId);
+    public Mono<ResponseEntity<Object>> getItemRequestsWithResponses(int from, int size, String cursor, Long userId) {
+        if (cursor != null) {
+            Map<String, Object> parameters = Map.of(
+                    "size", size,
+                    "cursor", cursor
+            );
+            return get("?size={size}&cursor={cursor}", userId, parameters);
+        }
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size
+        );
+        return get("?from={from}&size={size}", userId, parameters);
     }
 
 }
@@ -5,9 +5,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestSaveDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 
@@ -21,33 +23,48 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getItemRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                  @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                                  @Positive @RequestParam(defaultValue = "10") int size) {
-        log.info("Получен GET-запрос пользователя с ID={} на просмотр текущего списка запросов, from={}, size={}",
+    public Mono<ResponseEntity<Object>> getItemRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                        @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                                        @Positive @Max(1000) @RequestParam(defaultValue = "10") int size,
+                                                        @RequestParam(required = false) String cursor) {
+        log.info("Получен GET-запрос пользователя с ID={} на просмотр текущего списка запросов, from={}, size={}, " +
+                "cursor={}", userId, from, size, cursor);
+        return itemRequestClient.getItemRequests(from, size, cursor, userId);
+    }
+
+    @GetMapping("/suggestions")
+    public Mono<ResponseEntity<Object>> getSuggestions(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                       @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                                       @Positive @Max(1000) @RequestParam(defaultValue = "10") int size) {
+        log.info("Получен GET-запрос на подсказки вещей к запросам пользователя с ID={}, from={}, size={}",
                 userId, from, size);
-        return itemRequestClient.getItemRequests(from, size, userId);
+        return itemRequestClient.getSuggestions(from, size, userId);
     }
 
     @PostMapping
-    public ResponseEntity<Object> createNewItemRequest(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                       @Valid @RequestBody ItemRequestSaveDto itemRequestDto) {
+    public Mono<ResponseEntity<Object>> createNewItemRequest(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                             @Valid @RequestBody ItemRequestSaveDto itemRequestDto) {
         log.info("Получен POST-запрос на создание запроса вещи от пользователя с ID={}", userId);
         return itemRequestClient.create(userId, itemRequestDto);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getItemRequestById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                     @PathVariable Long requestId) {
+    public Mono<ResponseEntity<Object>> getItemRequestById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                           @PathVariable Long requestId) {
 
         log.info("Получен GET-запрос на получение запроса с ID={} пользователя с ID={}", requestId, userId);
         return itemRequestClient.getItemRequestById(userId, requestId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getItemRequestsWithResponses(@RequestHeader("X-Sharer-User-Id") Long userId) {
-        log.info("Получен GET-запрос на получение запросов пользователя с ID={}", userId);
-        return itemRequestClient.getItemRequestsWithResponses(userId);
+    public Mono<ResponseEntity<Object>> getItemRequestsWithResponses(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                     @PositiveOrZero @RequestParam(defaultValue = "0")
+                                                                     int from,
+                                                                     @Positive @Max(1000) @RequestParam(defaultValue = "10") int size,
+                                                                     @RequestParam(required = false) String cursor) {
+        log.info("Получен GET-запрос на получение запросов пользователя с ID={}, from={}, size={}, cursor={}",
+                userId, from, size, cursor);
+        return itemRequestClient.getItemRequestsWithResponses(from, size, cursor, userId);
     }
 
 }
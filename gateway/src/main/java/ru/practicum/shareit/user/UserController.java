@@ -2,13 +2,21 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Positive;
 
 @RestController
+@Validated
 @RequiredArgsConstructor
 @RequestMapping(path = "/users")
 @Slf4j
@@ -16,30 +24,39 @@ public class UserController {
     private final UserClient userClient;
 
     @GetMapping
-    public ResponseEntity<Object> getUsers() {
-        return userClient.getUsers();
+    public Mono<ResponseEntity<Object>> getUsers(@RequestParam(required = false) String cursor,
+                                                 @Positive @Max(1000) @RequestParam(defaultValue = "10") int size) {
+        return userClient.getUsers(cursor, size);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Flux<DataBuffer>> streamUsers() {
+        log.info("Получен GET-запрос на потоковую выгрузку пользователей");
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(userClient.streamUsers());
     }
 
     @PostMapping
-    public ResponseEntity<Object> createNewUser(@Valid @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> createNewUser(@Valid @RequestBody UserDto userDto) {
         log.info("Получен POST-запрос на добавление пользователя");
         return userClient.create(userDto);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> update(@PathVariable Long id, @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> update(@PathVariable Long id, @RequestBody UserDto userDto) {
         log.info("Получен PATCH-запрос на обновление пользователя с ID={}", id);
         return userClient.update(id, userDto);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getUserById(@PathVariable Long id) {
+    public Mono<ResponseEntity<Object>> getUserById(@PathVariable Long id) {
         log.info("Получен GET-запрос на пользователя с ID={}", id);
         return userClient.getUserById(id);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Object> delete(@PathVariable Long id) {
+    public Mono<ResponseEntity<Object>> delete(@PathVariable Long id) {
         log.info("Получен DELETE-запрос на удаление пользователя с ID={}", id);
         return userClient.delete(id);
     }
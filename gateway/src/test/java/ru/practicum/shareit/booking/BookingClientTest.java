@@ -0,0 +1,66 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.CoalescingProperties;
+import ru.practicum.shareit.client.ConcurrencyLimitProperties;
+import ru.practicum.shareit.client.ConcurrencyLimiter;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ResponseCacheProperties;
+import ru.practicum.shareit.item.ItemClient;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BookingClientTest {
+    private final List<String> calls = new CopyOnWriteArrayList<>();
+    private ItemClient itemClient;
+    private BookingClient bookingClient;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ResponseCacheProperties cacheProperties = new ResponseCacheProperties();
+        cacheProperties.setEnabled(true);
+        ResponseCache responseCache = new ResponseCache(cacheProperties, meterRegistry);
+        RequestCoalescer coalescer = new RequestCoalescer(new CoalescingProperties(), meterRegistry);
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new ConcurrencyLimitProperties(), meterRegistry);
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+            calls.add(request.method() + " " + request.url().getPath());
+            String body = request.method() == HttpMethod.PATCH
+                    ? "{\"id\":5,\"status\":\"APPROVED\",\"item\":{\"id\":1,\"name\":\"Дрель\"}}"
+                    : "{}";
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body(body)
+                    .build());
+        });
+        itemClient = new ItemClient("http://localhost:9090", builder, responseCache, coalescer, limiter);
+        bookingClient = new BookingClient("http://localhost:9090", builder, responseCache, coalescer, limiter,
+                new ObjectMapper());
+    }
+
+    @Test
+    void approveInvalidatesBookedItemTest() {
+        itemClient.getItemById(2L, 1L).block();
+        itemClient.getItemById(2L, 2L).block();
+
+        bookingClient.update(2L, 5L, true).block();
+        itemClient.getItemById(2L, 1L).block();
+        itemClient.getItemById(2L, 2L).block();
+
+        assertEquals(List.of("GET /items/1", "GET /items/2", "PATCH /bookings/5", "GET /items/1"), calls);
+    }
+}
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BaseClientTest {
+    private static final String ROUTE = "GET /items/{id}";
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final Map<String, Mono<ClientResponse>> responses = Map.of(
+            "/items/1", response(HttpStatus.OK),
+            "/items/2", response(HttpStatus.INTERNAL_SERVER_ERROR),
+            "/items/3", Mono.error(new IOException("Соединение сброшено")),
+            "/items/4", Mono.never()
+    );
+    private SimpleMeterRegistry meterRegistry;
+    private BaseClient client;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrencyLimitProperties limitProperties = new ConcurrencyLimitProperties();
+        limitProperties.setEnabled(true);
+        limitProperties.setInitialLimit(1);
+        limitProperties.setMinLimit(1);
+        CoalescingProperties coalescingProperties = new CoalescingProperties();
+        coalescingProperties.setEnabled(false);
+        meterRegistry = new SimpleMeterRegistry();
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+            calls.incrementAndGet();
+            return responses.get(request.url().getPath());
+        });
+        client = new BaseClient("http://localhost:9090/items", builder,
+                new RequestCoalescer(coalescingProperties, meterRegistry),
+                new ConcurrencyLimiter(limitProperties, meterRegistry));
+    }
+
+    @Test
+    void successReleasesPermitTest() {
+        assertEquals(HttpStatus.OK, client.get("/1").block().getStatusCode());
+        assertEquals(HttpStatus.OK, client.get("/1").block().getStatusCode());
+
+        assertEquals(0.0, gauge("gateway.concurrency.in_flight"));
+        assertEquals(0.0, count("dropped"));
+    }
+
+    @Test
+    void serverErrorIsDroppedTest() {
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, client.get("/2").block().getStatusCode());
+
+        assertEquals(0.0, gauge("gateway.concurrency.in_flight"));
+        assertEquals(1.0, count("dropped"));
+    }
+
+    @Test
+    void connectionErrorIsDroppedTest() {
+        assertThrows(RuntimeException.class, () -> client.get("/3").block());
+
+        assertEquals(0.0, gauge("gateway.concurrency.in_flight"));
+        assertEquals(1.0, count("dropped"));
+    }
+
+    @Test
+    void cancelledRequestIsIgnoredTest() {
+        Disposable request = client.get("/4").subscribe();
+
+        assertEquals(1.0, gauge("gateway.concurrency.in_flight"));
+
+        request.dispose();
+
+        assertEquals(0.0, gauge("gateway.concurrency.in_flight"));
+        assertEquals(0.0, count("dropped"));
+        assertEquals(1.0, gauge("gateway.concurrency.limit"));
+    }
+
+    @Test
+    void overflowAnswersServiceUnavailableTest() {
+        Disposable pending = client.get("/4").subscribe();
+
+        ResponseEntity<Object> rejected = client.get("/1").block();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatusCode());
+        assertEquals("1", rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, calls.get());
+        assertEquals(1.0, count("rejected"));
+        pending.dispose();
+    }
+
+    @Test
+    void routeIsControllerPatternTest() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/items/x"));
+        exchange.getAttributes().put(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                PathPatternParser.defaultInstance.parse("/items/{itemId}"));
+
+        client.get("/1").contextWrite(Context.of(ServerWebExchange.class, exchange)).block();
+        client.get("/1?text=abc").contextWrite(Context.of(ServerWebExchange.class, exchange)).block();
+
+        assertEquals(1, meterRegistry.find("gateway.concurrency.limit").gauges().size());
+        assertEquals(2.0, meterRegistry.get("gateway.concurrency.requests")
+                .tags("route", "GET /items/{itemId}", "result", "accepted").counter().count());
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).tag("route", ROUTE).gauge().value();
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("gateway.concurrency.requests").tags("route", ROUTE, "result", result)
+                .counter().count();
+    }
+
+    private static Mono<ClientResponse> response(HttpStatus status) {
+        return Mono.just(ClientResponse.create(status)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body("{}")
+                .build());
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrencyLimiterTest {
+    private static final String ROUTE = "GET /items/{itemId}";
+
+    private ConcurrencyLimitProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ConcurrencyLimitProperties();
+        properties.setEnabled(true);
+        properties.setInitialLimit(2);
+        properties.setMinLimit(1);
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new ConcurrencyLimiter(properties, meterRegistry);
+    }
+
+    @Test
+    void successReleasesPermitOnceTest() {
+        ConcurrencyLimiter.Permit permit = limiter.acquire(ROUTE).orElseThrow();
+
+        assertEquals(1.0, gauge("gateway.concurrency.in_flight"));
+
+        permit.success();
+        double limit = gauge("gateway.concurrency.limit");
+        permit.success();
+        permit.dropped();
+        permit.ignore();
+
+        assertEquals(0.0, gauge("gateway.concurrency.in_flight"));
+        assertEquals(0.0, count("dropped"));
+        assertTrue(limit >= 2.0);
+        assertEquals(limit, gauge("gateway.concurrency.limit"));
+    }
+
+    @Test
+    void droppedReleasesPermitAndLowersLimitTest() {
+        ConcurrencyLimiter.Permit permit = limiter.acquire(ROUTE).orElseThrow();
+
+        permit.dropped();
+        permit.success();
+
+        assertEquals(0.0, gauge("gateway.concurrency.in_flight"));
+        assertEquals(1.0, count("dropped"));
+        assertEquals(2 * properties.getBackoffRatio(), gauge("gateway.concurrency.limit"), 1e-9);
+    }
+
+    @Test
+    void ignoreReleasesPermitWithoutSampleTest() {
+        ConcurrencyLimiter.Permit permit = limiter.acquire(ROUTE).orElseThrow();
+
+        permit.ignore();
+        permit.dropped();
+
+        assertEquals(0.0, gauge("gateway.concurrency.in_flight"));
+        assertEquals(0.0, count("dropped"));
+        assertEquals(0.0, gauge("gateway.concurrency.rtt"));
+        assertEquals(2.0, gauge("gateway.concurrency.limit"));
+    }
+
+    @Test
+    void overflowIsRejectedTest() {
+        limiter.acquire(ROUTE).orElseThrow();
+        limiter.acquire(ROUTE).orElseThrow();
+
+        Optional<ConcurrencyLimiter.Permit> rejected = limiter.acquire(ROUTE);
+
+        assertTrue(rejected.isEmpty());
+        assertEquals(2.0, count("accepted"));
+        assertEquals(1.0, count("rejected"));
+        assertTrue(limiter.acquire("GET /items/search").isPresent());
+    }
+
+    @Test
+    void disabledByDefaultTest() {
+        ConcurrencyLimitProperties defaults = new ConcurrencyLimitProperties();
+        defaults.setInitialLimit(2);
+        limiter = new ConcurrencyLimiter(defaults, meterRegistry);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.acquire(ROUTE).isPresent());
+        }
+
+        assertTrue(meterRegistry.find("gateway.concurrency.limit").gauges().isEmpty());
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).tag("route", ROUTE).gauge().value();
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("gateway.concurrency.requests").tags("route", ROUTE, "result", result)
+                .counter().count();
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradientLimitTest {
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private ConcurrencyLimitProperties properties;
+    private GradientLimit limit;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ConcurrencyLimitProperties();
+        properties.setLongWindow(10);
+        limit = new GradientLimit(properties);
+    }
+
+    @Test
+    void tryAcquireStopsAtLimitTest() {
+        for (int i = 0; i < 20; i++) {
+            assertTrue(limit.tryAcquire());
+        }
+
+        assertFalse(limit.tryAcquire());
+
+        limit.release();
+
+        assertTrue(limit.tryAcquire());
+        assertEquals(20, limit.getInFlight());
+    }
+
+    @Test
+    void growsWhileServerKeepsUpTest() {
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(FAST, (int) limit.getLimit());
+        }
+
+        assertTrue(limit.getLimit() > 40, "limit: " + limit.getLimit());
+        assertTrue(limit.getLimit() <= properties.getMaxLimit());
+    }
+
+    @Test
+    void doesNotGrowWhenUnderusedTest() {
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(FAST, 1);
+        }
+
+        assertEquals(20, limit.getLimit());
+    }
+
+    @Test
+    void shrinksWhenServerSlowsDownTest() {
+        for (int i = 0; i < 5; i++) {
+            limit.onSample(FAST, (int) limit.getLimit());
+        }
+        double beforeSlowdown = limit.getLimit();
+
+        for (int i = 0; i < 5; i++) {
+            limit.onSample(SLOW, (int) limit.getLimit());
+        }
+
+        assertTrue(limit.getLimit() < beforeSlowdown, limit.getLimit() + " < " + beforeSlowdown);
+    }
+
+    @Test
+    void droppedBacksOffDownToMinLimitTest() {
+        limit.onDropped();
+
+        assertEquals(20 * properties.getBackoffRatio(), limit.getLimit(), 1e-9);
+
+        for (int i = 0; i < 100; i++) {
+            limit.onDropped();
+        }
+
+        assertEquals(properties.getMinLimit(), limit.getLimit());
+    }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RequestCoalescerTest {
+    private static final RequestCoalescer.Key KEY =
+            new RequestCoalescer.Key(HttpMethod.GET, URI.create("http://localhost:9090/items/1"), 1L);
+
+    private final List<Sinks.One<ResponseEntity<Object>>> requests = new CopyOnWriteArrayList<>();
+    private final Supplier<Mono<ResponseEntity<Object>>> request = () -> {
+        Sinks.One<ResponseEntity<Object>> sink = Sinks.one();
+        requests.add(sink);
+        return sink.asMono();
+    };
+    private SimpleMeterRegistry meterRegistry;
+    private RequestCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        CoalescingProperties properties = new CoalescingProperties();
+        properties.setWaitTimeout(Duration.ofMillis(200));
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new RequestCoalescer(properties, meterRegistry);
+    }
+
+    @Test
+    void waiterGetsLeaderResponseTest() throws Exception {
+        CompletableFuture<ResponseEntity<Object>> leader = coalescer.execute(KEY, request).toFuture();
+        CompletableFuture<ResponseEntity<Object>> waiter = coalescer.execute(KEY, request).toFuture();
+        ResponseEntity<Object> response = ResponseEntity.ok("item");
+
+        requests.get(0).tryEmitValue(response);
+
+        assertSame(response, leader.get(1, TimeUnit.SECONDS));
+        assertSame(response, waiter.get(1, TimeUnit.SECONDS));
+        assertEquals(1, requests.size());
+        assertEquals(1.0, count("joined"));
+    }
+
+    @Test
+    void keyRemovedAfterCompletionTest() throws Exception {
+        CompletableFuture<ResponseEntity<Object>> first = coalescer.execute(KEY, request).toFuture();
+        requests.get(0).tryEmitValue(ResponseEntity.ok("first"));
+        first.get(1, TimeUnit.SECONDS);
+
+        assertEquals(0.0, meterRegistry.get("gateway.coalescing.in_flight").gauge().value());
+
+        CompletableFuture<ResponseEntity<Object>> second = coalescer.execute(KEY, request).toFuture();
+        requests.get(1).tryEmitValue(ResponseEntity.ok("second"));
+
+        assertEquals("second", second.get(1, TimeUnit.SECONDS).getBody());
+        assertEquals(2.0, count("leader"));
+    }
+
+    @Test
+    void keyRemovedAfterErrorTest() {
+        CompletableFuture<ResponseEntity<Object>> first = coalescer.execute(KEY, request).toFuture();
+        requests.get(0).tryEmitError(new IllegalStateException("Сервер недоступен"));
+
+        assertThrows(ExecutionException.class, () -> first.get(1, TimeUnit.SECONDS));
+        assertEquals(0.0, meterRegistry.get("gateway.coalescing.in_flight").gauge().value());
+    }
+
+    @Test
+    void waiterTimeoutFallsBackToOwnRequestTest() throws Exception {
+        coalescer.execute(KEY, request).subscribe();
+        CompletableFuture<ResponseEntity<Object>> waiter = coalescer.execute(KEY, request).toFuture();
+
+        for (int i = 0; i < 100 && requests.size() < 2; i++) {
+            Thread.sleep(10);
+        }
+        requests.get(1).tryEmitValue(ResponseEntity.ok("own"));
+
+        assertEquals("own", waiter.get(1, TimeUnit.SECONDS).getBody());
+        assertEquals(1.0, count("timeout"));
+    }
+
+    @Test
+    void leaderCancellationFallsBackToOwnRequestTest() throws Exception {
+        Disposable leader = coalescer.execute(KEY, request).subscribe();
+        CompletableFuture<ResponseEntity<Object>> waiter = coalescer.execute(KEY, request).toFuture();
+
+        leader.dispose();
+
+        assertEquals(2, requests.size());
+        requests.get(1).tryEmitValue(ResponseEntity.ok("own"));
+        assertEquals("own", waiter.get(1, TimeUnit.SECONDS).getBody());
+        assertEquals(0.0, count("timeout"));
+        assertEquals(0.0, meterRegistry.get("gateway.coalescing.in_flight").gauge().value());
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("gateway.coalescing.requests").tag("result", result).counter().count();
+    }
+}
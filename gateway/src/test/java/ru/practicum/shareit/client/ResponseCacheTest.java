@@ -0,0 +1,145 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ResponseCacheTest {
+    private final AtomicInteger calls = new AtomicInteger();
+    private ResponseCache responseCache;
+
+    @BeforeEach
+    void setUp() {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setEnabled(true);
+        responseCache = new ResponseCache(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void getCachesSuccessfulResponsesTest() {
+        ResponseCache.Key key = ResponseCache.key("/items/1", null, 1L);
+
+        get(key, HttpStatus.OK);
+        get(key, HttpStatus.OK);
+        get(ResponseCache.key("/items/2", null, 1L), HttpStatus.NOT_FOUND);
+        get(ResponseCache.key("/items/2", null, 1L), HttpStatus.NOT_FOUND);
+
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void invalidateOnSuccessRemovesOnlyGivenPathsTest() {
+        ResponseCache.Key item = ResponseCache.key("/items/1", null, 1L);
+        ResponseCache.Key otherViewer = ResponseCache.key("/items/1", null, 2L);
+        ResponseCache.Key otherItem = ResponseCache.key("/items/2", null, 1L);
+        ResponseCache.Key search = ResponseCache.key("/items/search", Map.of("text", "дрель"), null);
+        get(item, HttpStatus.OK);
+        get(otherViewer, HttpStatus.OK);
+        get(otherItem, HttpStatus.OK);
+        get(search, HttpStatus.OK);
+
+        responseCache.invalidateOnSuccess(Mono.just(ResponseEntity.ok().build()), "/items/1").block();
+        calls.set(0);
+        get(item, HttpStatus.OK);
+        get(otherViewer, HttpStatus.OK);
+        get(otherItem, HttpStatus.OK);
+        get(search, HttpStatus.OK);
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void failedChangeKeepsResponsesTest() {
+        ResponseCache.Key item = ResponseCache.key("/items/1", null, 1L);
+        get(item, HttpStatus.OK);
+
+        responseCache.invalidateOnSuccess(Mono.just(ResponseEntity.badRequest().build()), "/items/1").block();
+        get(item, HttpStatus.OK);
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void invalidateAllOnSuccessTest() {
+        get(ResponseCache.key("/items/1", null, 1L), HttpStatus.OK);
+        get(ResponseCache.key("/requests/all", Map.of("from", 0), 1L), HttpStatus.OK);
+
+        responseCache.invalidateAllOnSuccess(Mono.just(ResponseEntity.ok().build())).block();
+        get(ResponseCache.key("/items/1", null, 1L), HttpStatus.OK);
+        get(ResponseCache.key("/requests/all", Map.of("from", 0), 1L), HttpStatus.OK);
+
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    void responseStartedBeforeChangeIsNotCachedTest() throws Exception {
+        ResponseCache.Key item = ResponseCache.key("/items/1", null, 1L);
+        Sinks.One<ResponseEntity<Object>> upstream = Sinks.one();
+        CompletableFuture<ResponseEntity<Object>> stale = responseCache.get(item, () -> {
+            calls.incrementAndGet();
+            return upstream.asMono();
+        }).toFuture();
+
+        responseCache.invalidateOnSuccess(Mono.just(ResponseEntity.ok().build()), "/items/1").block();
+        upstream.tryEmitValue(ResponseEntity.ok().build());
+
+        assertEquals(HttpStatus.OK, stale.get(1, TimeUnit.SECONDS).getStatusCode());
+
+        get(item, HttpStatus.OK);
+        get(item, HttpStatus.OK);
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void responseStartedBeforeChangeOfOtherPathIsCachedTest() throws Exception {
+        ResponseCache.Key item = ResponseCache.key("/items/1", null, 1L);
+        Sinks.One<ResponseEntity<Object>> upstream = Sinks.one();
+        CompletableFuture<ResponseEntity<Object>> response = responseCache.get(item, () -> {
+            calls.incrementAndGet();
+            return upstream.asMono();
+        }).toFuture();
+
+        responseCache.invalidateOnSuccess(Mono.just(ResponseEntity.ok().build()), "/items/2").block();
+        upstream.tryEmitValue(ResponseEntity.ok().build());
+        response.get(1, TimeUnit.SECONDS);
+        get(item, HttpStatus.OK);
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void responseStartedBeforeInvalidateAllIsNotCachedTest() throws Exception {
+        ResponseCache.Key feed = ResponseCache.key("/requests/all", Map.of("from", 0), 1L);
+        Sinks.One<ResponseEntity<Object>> upstream = Sinks.one();
+        CompletableFuture<ResponseEntity<Object>> stale = responseCache.get(feed, () -> {
+            calls.incrementAndGet();
+            return upstream.asMono();
+        }).toFuture();
+
+        responseCache.invalidateAllOnSuccess(Mono.just(ResponseEntity.ok().build())).block();
+        upstream.tryEmitValue(ResponseEntity.ok().build());
+        stale.get(1, TimeUnit.SECONDS);
+        get(feed, HttpStatus.OK);
+
+        assertEquals(2, calls.get());
+    }
+
+    private void get(ResponseCache.Key key, HttpStatus status) {
+        responseCache.get(key, () -> Mono.fromSupplier(() -> {
+            calls.incrementAndGet();
+            return ResponseEntity.status(status).build();
+        })).block();
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.CoalescingProperties;
+import ru.practicum.shareit.client.ConcurrencyLimitProperties;
+import ru.practicum.shareit.client.ConcurrencyLimiter;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ResponseCacheProperties;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemClientTest {
+    private final List<String> calls = new CopyOnWriteArrayList<>();
+    private ItemClient itemClient;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ResponseCacheProperties cacheProperties = new ResponseCacheProperties();
+        cacheProperties.setEnabled(true);
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+            calls.add(request.method() + " " + request.url().getPath());
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body("{}")
+                    .build());
+        });
+        itemClient = new ItemClient("http://localhost:9090", builder,
+                new ResponseCache(cacheProperties, meterRegistry),
+                new RequestCoalescer(new CoalescingProperties(), meterRegistry),
+                new ConcurrencyLimiter(new ConcurrencyLimitProperties(), meterRegistry));
+    }
+
+    /**
+     * Выдача поиска не зависит от пользователя, поэтому повторный поиск другим пользователем берется из кэша.
+     * Если сервер начнет учитывать пользователя в поиске, ключ кэша должен будет его включать.
+     */
+    @Test
+    void searchIsSharedBetweenUsersTest() {
+        itemClient.searchItem(1L, "дрель", 0, 10).block();
+        itemClient.searchItem(2L, "дрель", 0, 10).block();
+
+        assertEquals(List.of("GET /items/search"), calls);
+    }
+
+    @Test
+    void updateInvalidatesOnlyChangedItemTest() {
+        itemClient.getItemById(1L, 1L).block();
+        itemClient.getItemById(1L, 2L).block();
+
+        itemClient.update(1L, 1L, new ItemDto(null, "Дрель", null, null, null, null)).block();
+        itemClient.getItemById(1L, 1L).block();
+        itemClient.getItemById(1L, 2L).block();
+
+        assertEquals(List.of("GET /items/1", "GET /items/2", "PATCH /items/1", "GET /items/1"), calls);
+    }
+}
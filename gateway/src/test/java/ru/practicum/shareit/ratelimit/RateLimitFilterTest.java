@@ -0,0 +1,104 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitFilterTest {
+    private final AtomicInteger passed = new AtomicInteger();
+    private final WebFilterChain chain = exchange -> {
+        passed.incrementAndGet();
+        return Mono.empty();
+    };
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void burstThenTooManyRequestsTest() {
+        RateLimitFilter filter = filter(3, 1);
+
+        for (int i = 0; i < 3; i++) {
+            assertNull(search(filter, 1L).getResponse().getStatusCode());
+        }
+        MockServerWebExchange rejected = search(filter, 1L);
+
+        assertEquals(3, passed.get());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getResponse().getStatusCode());
+        assertEquals("1", rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertTrue(rejected.getResponse().getBodyAsString().block().contains("Слишком много запросов"));
+        assertEquals(1.0, meterRegistry.get("gateway.rate_limit.requests")
+                .tags("route", "item-search", "result", "rejected").counter().count());
+    }
+
+    @Test
+    void retryAfterRoundsUpToNextTokenTest() {
+        RateLimitFilter filter = filter(1, 0.1);
+
+        search(filter, 1L);
+        MockServerWebExchange rejected = search(filter, 1L);
+
+        long retryAfter = Long.parseLong(rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertTrue(retryAfter == 10 || retryAfter == 9, "Retry-After: " + retryAfter);
+    }
+
+    @Test
+    void limitsAreCountedPerUserAndRouteTest() {
+        RateLimitFilter filter = filter(1, 1);
+
+        search(filter, 1L);
+        search(filter, 2L);
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/items/1")
+                .header("X-Sharer-User-Id", "1")), chain).block();
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/items/search")
+                .queryParam("text", "дрель")), chain).block();
+
+        assertEquals(4, passed.get());
+    }
+
+    @Test
+    void disabledByDefaultTest() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getRoutes().put("item-search", route(1, 1));
+        RateLimitFilter filter = new RateLimitFilter(properties, meterRegistry, new ObjectMapper());
+
+        for (int i = 0; i < 10; i++) {
+            assertNull(search(filter, 1L).getResponse().getStatusCode());
+        }
+
+        assertEquals(10, passed.get());
+    }
+
+    private MockServerWebExchange search(RateLimitFilter filter, Long userId) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/items/search")
+                .queryParam("text", "дрель")
+                .header("X-Sharer-User-Id", String.valueOf(userId)));
+        filter.filter(exchange, chain).block();
+        return exchange;
+    }
+
+    private RateLimitFilter filter(int capacity, double refillPerSecond) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setEnabled(true);
+        properties.getRoutes().put("item-search", route(capacity, refillPerSecond));
+        return new RateLimitFilter(properties, meterRegistry, new ObjectMapper());
+    }
+
+    private static RateLimitProperties.Route route(int capacity, double refillPerSecond) {
+        RateLimitProperties.Route route = new RateLimitProperties.Route();
+        route.setPath("/items/search");
+        route.setCapacity(capacity);
+        route.setRefillPerSecond(refillPerSecond);
+        return route;
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.context.ConfigurationPropertiesAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitPropertiesTest {
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(ConfigurationPropertiesAutoConfiguration.class,
+                    ValidationAutoConfiguration.class))
+            .withBean(RateLimitProperties.class);
+
+    @Test
+    void validRouteTest() {
+        contextRunner.withPropertyValues("shareit-server.rate-limit.routes.search.path=/items/search",
+                        "shareit-server.rate-limit.routes.search.capacity=10",
+                        "shareit-server.rate-limit.routes.search.refill-per-second=0.5")
+                .run(context -> assertThat(context).hasNotFailed());
+    }
+
+    @Test
+    void zeroRefillRejectedTest() {
+        contextRunner.withPropertyValues("shareit-server.rate-limit.routes.search.path=/items/search",
+                        "shareit-server.rate-limit.routes.search.refill-per-second=0")
+                .run(context -> assertThat(context).hasFailed()
+                        .getFailure().hasStackTraceContaining("refillPerSecond"));
+    }
+
+    @Test
+    void zeroCapacityRejectedTest() {
+        contextRunner.withPropertyValues("shareit-server.rate-limit.routes.search.path=/items/search",
+                        "shareit-server.rate-limit.routes.search.capacity=0")
+                .run(context -> assertThat(context).hasFailed()
+                        .getFailure().hasStackTraceContaining("capacity"));
+    }
+
+    @Test
+    void missingPathRejectedTest() {
+        contextRunner.withPropertyValues("shareit-server.rate-limit.routes.search.capacity=10")
+                .run(context -> assertThat(context).hasFailed()
+                        .getFailure().hasStackTraceContaining("routes.search.path"));
+    }
+}
@@ -0,0 +1,68 @@
+-- Сравнение планов поиска вещей на 1 000 000 строк (PostgreSQL, схема из schema.sql).
+-- Запуск: psql -d shareit -f server/bench/search.sql
+-- Каждая тысячная вещь содержит в описании «аккумуляторная дрель», каждая десятая недоступна.
+
+INSERT INTO users (name, email) VALUES ('bench', 'bench@shareit.ru') ON CONFLICT DO NOTHING;
+
+INSERT INTO items (name, description, available, owner_id)
+SELECT 'item ' || md5(g::text),
+       'description ' || md5((g * 7)::text) || CASE WHEN g % 1000 = 1 THEN ' аккумуляторная дрель' ELSE '' END,
+       g % 10 <> 0,
+       (SELECT id FROM users WHERE email = 'bench@shareit.ru')
+FROM generate_series(1, 1000000) AS g;
+
+ANALYZE items;
+
+-- Один и тот же запрос подстрокой (ItemRepository.searchItemBySubstring) выполняется дважды: без индексов pg_trgm,
+-- как при shareit.search.backend=like, и с индексами из schema-search-trigram.sql, как при trigram.
+-- Искомые слова: встречающееся в каждой тысячной вещи, то же со смещением 500 и отсутствующее.
+DROP INDEX IF EXISTS idx_items_name_trgm;
+
+DROP INDEX IF EXISTS idx_items_description_trgm;
+
+-- Без индексов pg_trgm
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM items i
+WHERE (LOWER(i.name) LIKE '%' || 'дрель' || '%' OR LOWER(i.description) LIKE '%' || 'дрель' || '%')
+  AND i.available = true
+LIMIT 10 OFFSET 0;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM items i
+WHERE (LOWER(i.name) LIKE '%' || 'дрель' || '%' OR LOWER(i.description) LIKE '%' || 'дрель' || '%')
+  AND i.available = true
+LIMIT 10 OFFSET 500;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM items i
+WHERE (LOWER(i.name) LIKE '%' || 'перфоратор' || '%' OR LOWER(i.description) LIKE '%' || 'перфоратор' || '%')
+  AND i.available = true
+LIMIT 10 OFFSET 0;
+
+-- С индексами из schema-search-trigram.sql
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items USING gin (LOWER(name) gin_trgm_ops) WHERE available = true;
+
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm ON items USING gin (LOWER(description) gin_trgm_ops)
+  WHERE available = true;
+
+ANALYZE items;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM items i
+WHERE (LOWER(i.name) LIKE '%' || 'дрель' || '%' OR LOWER(i.description) LIKE '%' || 'дрель' || '%')
+  AND i.available = true
+LIMIT 10 OFFSET 0;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM items i
+WHERE (LOWER(i.name) LIKE '%' || 'дрель' || '%' OR LOWER(i.description) LIKE '%' || 'дрель' || '%')
+  AND i.available = true
+LIMIT 10 OFFSET 500;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM items i
+WHERE (LOWER(i.name) LIKE '%' || 'перфоратор' || '%' OR LOWER(i.description) LIKE '%' || 'перфоратор' || '%')
+  AND i.available = true
+LIMIT 10 OFFSET 0;
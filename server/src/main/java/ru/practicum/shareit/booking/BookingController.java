@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingSaveDto;
@@ -44,24 +45,32 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                        @RequestParam(value = "state", defaultValue = "ALL",
-                                                required = false) String state,
-                                        @RequestParam(defaultValue = "0") int from,
-                                        @RequestParam(defaultValue = "10") int size) {
+    public ResponseEntity<List<BookingDto>> getBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                        @RequestParam(value = "state", defaultValue = "ALL",
+                                                                required = false) String state,
+                                                        @RequestParam(defaultValue = "0") int from,
+                                                        @RequestParam(defaultValue = "10") int size,
+                                                        @RequestParam(required = false) String cursor) {
         log.info("Получен GET-запрос на получение списка всех бронирований пользователя при state {}, userId={}, " +
-                "from={}, size={}", state, userId, from, size);
-        return bookingService.getBookings(from, size, userId, state);
+                "from={}, size={}, cursor={}", state, userId, from, size, cursor);
+        if (cursor != null) {
+            return bookingService.getBookings(cursor, size, userId, state).toResponseEntity();
+        }
+        return ResponseEntity.ok(bookingService.getBookings(from, size, userId, state));
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                             @RequestParam(value = "state", defaultValue = "ALL",
-                                                     required = false) String state,
-                                             @RequestParam(defaultValue = "0") int from,
-                                             @RequestParam(defaultValue = "10") int size) {
+    public ResponseEntity<List<BookingDto>> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                             @RequestParam(value = "state", defaultValue = "ALL",
+                                                                     required = false) String state,
+                                                             @RequestParam(defaultValue = "0") int from,
+                                                             @RequestParam(defaultValue = "10") int size,
+                                                             @RequestParam(required = false) String cursor) {
         log.info("Получен GET-запрос на получение списка всех бронирований пользователя (владельца)" +
-                " при state {}, userId={}, from={}, size={}", state, userId, from, size);
-        return bookingService.getOwnerBookings(from, size, userId, state);
+                " при state {}, userId={}, from={}, size={}, cursor={}", state, userId, from, size, cursor);
+        if (cursor != null) {
+            return bookingService.getOwnerBookings(cursor, size, userId, state).toResponseEntity();
+        }
+        return ResponseEntity.ok(bookingService.getOwnerBookings(from, size, userId, state));
     }
 }
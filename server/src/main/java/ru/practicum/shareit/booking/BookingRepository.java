@@ -2,38 +2,181 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingItemDateDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.booker.id = ?1 " +
+            "ORDER BY b.start DESC")
     List<Booking> findByBookerIdOrderByStartDesc(Long bookerId, Pageable pageable);
 
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.booker.id = ?1 AND b.start < ?2 AND b.end > ?3 " +
+            "ORDER BY b.start DESC")
     List<Booking> findByBookerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(Long bookerId, LocalDateTime start,
                                                                               LocalDateTime end, Pageable pageable);
 
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.booker.id = ?1 AND b.end < ?2 " +
+            "ORDER BY b.start DESC")
     List<Booking> findByBookerIdAndEndIsBeforeOrderByStartDesc(Long bookerId, LocalDateTime end, Pageable pageable);
 
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.booker.id = ?1 AND b.start > ?2 " +
+            "ORDER BY b.start DESC")
     List<Booking> findByBookerIdAndStartIsAfterOrderByStartDesc(Long bookerId, LocalDateTime start, Pageable pageable);
 
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.booker.id = ?1 AND b.status = ?2 " +
+            "ORDER BY b.start DESC")
     List<Booking> findByBookerIdAndStatusOrderByStartDesc(Long bookerId, Status status, Pageable pageable);
 
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.item.owner.id = ?1 " +
+            "ORDER BY b.start DESC")
     List<Booking> findByItemOwnerIdOrderByStartDesc(Long ownerId, Pageable pageable);
 
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.item.owner.id = ?1 AND b.start < ?2 AND b.end > ?3 " +
+            "ORDER BY b.start DESC")
     List<Booking> findByItemOwnerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(Long ownerId, LocalDateTime start,
                                                                                  LocalDateTime end, Pageable pageable);
 
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.item.owner.id = ?1 AND b.end < ?2 " +
+            "ORDER BY b.start DESC")
     List<Booking> findByItemOwnerIdAndEndIsBeforeOrderByStartDesc(Long ownerId, LocalDateTime end, Pageable pageable);
 
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.item.owner.id = ?1 AND b.start > ?2 " +
+            "ORDER BY b.start DESC")
     List<Booking> findByItemOwnerIdAndStartIsAfterOrderByStartDesc(Long ownerId, LocalDateTime start, Pageable pageable);
 
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.item.owner.id = ?1 AND b.status = ?2 " +
+            "ORDER BY b.start DESC")
     List<Booking> findByItemOwnerIdAndStatusOrderByStartDesc(Long ownerId, Status status, Pageable pageable);
 
-    List<Booking> findAllByItemIdAndStatusOrderByEndAsc(Long itemId, Status status);
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingItemDateDto(b.item.id, b.id, b.booker.id, b.start) " +
+            "FROM Booking b " +
+            "WHERE b.item.id IN ?1 AND b.status = ?2 AND " +
+            "(b.start = (SELECT MAX(l.start) FROM Booking l " +
+            "WHERE l.item.id = b.item.id AND l.status = ?2 AND l.start <= ?3) OR " +
+            "b.start = (SELECT MIN(n.start) FROM Booking n " +
+            "WHERE n.item.id = b.item.id AND n.status = ?2 AND n.start > ?3))")
+    List<BookingItemDateDto> findLastAndNextByItemIdIn(Collection<Long> itemIds, Status status, LocalDateTime now);
 
+    /**
+     * Ищет бронирования вещи, пересекающиеся с интервалом [start, end). Поиск идет по индексу (item_id, start_date)
+     * от конца интервала назад и останавливается на первом совпадении.
+     */
+    @Query("SELECT b.id FROM Booking b " +
+            "WHERE b.item.id = ?1 AND b.status IN ?2 AND b.start < ?4 AND b.end > ?3 " +
+            "ORDER BY b.start DESC")
+    List<Long> findOverlappingIds(Long itemId, Collection<Status> statuses, LocalDateTime start, LocalDateTime end,
+                                  Pageable pageable);
+
+    /**
+     * То же, что findOverlappingIds, но без самого бронирования bookingId: нужно при его подтверждении.
+     */
+    @Query("SELECT b.id FROM Booking b " +
+            "WHERE b.item.id = ?1 AND b.id <> ?2 AND b.status IN ?3 AND b.start < ?5 AND b.end > ?4 " +
+            "ORDER BY b.start DESC")
+    List<Long> findOverlappingIdsExcept(Long itemId, Long bookingId, Collection<Status> statuses,
+                                        LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    /**
+     * Интервалы бронирований вещи, которые задевают период [from, to), по возрастанию начала.
+     */
+    @Query("SELECT b.start AS start, b.end AS end " +
+            "FROM Booking b " +
+            "WHERE b.item.id = ?1 AND b.status IN ?2 AND b.start < ?4 AND b.end > ?3 " +
+            "ORDER BY b.start")
+    List<BookingInterval> findIntervalsInRange(Long itemId, Collection<Status> statuses, LocalDateTime from,
+                                               LocalDateTime to);
+
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.item.id = ?1 AND b.booker.id = ?2 AND b.status = ?3")
     List<Booking> findAllByItemIdAndBookerIdAndStatus(Long itemId, Long userId, Status status);
+
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.booker.id = ?1 AND (b.start < ?2 OR (b.start = ?2 AND b.id < ?3)) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<Booking> findBookerPage(Long bookerId, LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.booker.id = ?1 AND (b.start < ?2 OR (b.start = ?2 AND b.id < ?3)) " +
+            "AND b.start < ?4 AND b.end > ?4 " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<Booking> findBookerCurrentPage(Long bookerId, LocalDateTime cursorStart, Long cursorId, LocalDateTime now,
+                                        Pageable pageable);
+
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.booker.id = ?1 AND (b.start < ?2 OR (b.start = ?2 AND b.id < ?3)) " +
+            "AND b.end < ?4 " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<Booking> findBookerPastPage(Long bookerId, LocalDateTime cursorStart, Long cursorId, LocalDateTime now,
+                                     Pageable pageable);
+
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.booker.id = ?1 AND (b.start < ?2 OR (b.start = ?2 AND b.id < ?3)) " +
+            "AND b.start > ?4 " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<Booking> findBookerFuturePage(Long bookerId, LocalDateTime cursorStart, Long cursorId, LocalDateTime now,
+                                       Pageable pageable);
+
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.booker.id = ?1 AND (b.start < ?2 OR (b.start = ?2 AND b.id < ?3)) " +
+            "AND b.status = ?4 " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<Booking> findBookerStatusPage(Long bookerId, LocalDateTime cursorStart, Long cursorId, Status status,
+                                       Pageable pageable);
+
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.item.owner.id = ?1 AND (b.start < ?2 OR (b.start = ?2 AND b.id < ?3)) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<Booking> findOwnerPage(Long ownerId, LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.item.owner.id = ?1 AND (b.start < ?2 OR (b.start = ?2 AND b.id < ?3)) " +
+            "AND b.start < ?4 AND b.end > ?4 " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<Booking> findOwnerCurrentPage(Long ownerId, LocalDateTime cursorStart, Long cursorId, LocalDateTime now,
+                                       Pageable pageable);
+
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.item.owner.id = ?1 AND (b.start < ?2 OR (b.start = ?2 AND b.id < ?3)) " +
+            "AND b.end < ?4 " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<Booking> findOwnerPastPage(Long ownerId, LocalDateTime cursorStart, Long cursorId, LocalDateTime now,
+                                    Pageable pageable);
+
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.item.owner.id = ?1 AND (b.start < ?2 OR (b.start = ?2 AND b.id < ?3)) " +
+            "AND b.start > ?4 " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<Booking> findOwnerFuturePage(Long ownerId, LocalDateTime cursorStart, Long cursorId, LocalDateTime now,
+                                      Pageable pageable);
+
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.item.owner.id = ?1 AND (b.start < ?2 OR (b.start = ?2 AND b.id < ?3)) " +
+            "AND b.status = ?4 " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<Booking> findOwnerStatusPage(Long ownerId, LocalDateTime cursorStart, Long cursorId, Status status,
+                                      Pageable pageable);
+
+    interface BookingInterval {
+        LocalDateTime getStart();
+
+        LocalDateTime getEnd();
+    }
 }
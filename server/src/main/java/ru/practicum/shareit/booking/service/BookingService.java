@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingSaveDto;
+import ru.practicum.shareit.pagination.CursorPage;
 
 import java.util.List;
 
@@ -17,4 +18,8 @@ public interface BookingService {
 
     List<BookingDto> getOwnerBookings(int from, int size, Long userId, String state);
 
+    CursorPage<BookingDto> getBookings(String cursor, int size, Long userId, String state);
+
+    CursorPage<BookingDto> getOwnerBookings(String cursor, int size, Long userId, String state);
+
 }
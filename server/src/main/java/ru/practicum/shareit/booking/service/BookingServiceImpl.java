@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
@@ -11,31 +12,41 @@ import ru.practicum.shareit.booking.dto.BookingSaveDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.FromSizeRequest;
 import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final Set<Status> BLOCKING_STATUSES = EnumSet.of(Status.WAITING, Status.APPROVED);
+
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserService userService;
 
     @Override
+    @Transactional
     public BookingDto create(Long userId, BookingSaveDto bookingDto) {
-        Booking booking = mapToNewBooking(bookingDto, userId);
-        Item item = itemRepository.findById(booking.getItem().getId())
+        itemRepository.lockById(bookingDto.getItemId());
+        Item item = itemRepository.findById(bookingDto.getItemId())
                 .orElseThrow(() -> new NotFoundException("Не найдена вещь с ID = "
                         + bookingDto.getItemId()));
-        getUser(userId);
+        User booker = UserMapper.toUser(userService.getUserById(userId));
         if (Objects.equals(item.getOwner().getId(), userId)) {
             throw new NotFoundException("Собственник вещи не может ее забронировать.");
         }
@@ -49,10 +60,19 @@ public class BookingServiceImpl implements BookingService {
                 bookingDto.getStart().isBefore(LocalDateTime.now())) {
             throw new BadRequestException("Некорректное введение времени бронирования.");
         }
-        return BookingMapper.toBookingDto(bookingRepository.save(booking));
+        if (!bookingRepository.findOverlappingIds(item.getId(), BLOCKING_STATUSES, bookingDto.getStart(),
+                bookingDto.getEnd(), PageRequest.of(0, 1)).isEmpty()) {
+            throw new ConflictException("Вещь с ID = " + item.getId() + " уже забронирована на это время.");
+        }
+        return BookingMapper.toBookingDto(bookingRepository.save(mapToNewBooking(bookingDto, item, booker)));
     }
 
+    /**
+     * Подтверждение проверяет пересечения под той же блокировкой вещи, что и create: отклоненное бронирование
+     * не блокирует интервал, и за это время вещь могли забронировать другие.
+     */
     @Override
+    @Transactional
     public BookingDto update(Long userId, Long bookingId, Boolean approved) {
         getUser(userId);
         Booking booking = getBooking(bookingId);
@@ -62,6 +82,14 @@ public class BookingServiceImpl implements BookingService {
         if (booking.getStatus().equals(Status.APPROVED)) {
             throw new BadRequestException("Статус бронирования вещи уже установлен APPROVED");
         }
+        if (approved) {
+            Long itemId = booking.getItem().getId();
+            itemRepository.lockById(itemId);
+            if (!bookingRepository.findOverlappingIdsExcept(itemId, bookingId, BLOCKING_STATUSES,
+                    booking.getStart(), booking.getEnd(), PageRequest.of(0, 1)).isEmpty()) {
+                throw new ConflictException("Вещь с ID = " + itemId + " уже забронирована на это время.");
+            }
+        }
         booking.setStatus(!approved ? Status.REJECTED : Status.APPROVED);
         return BookingMapper.toBookingDto(bookingRepository.save(booking));
     }
@@ -81,7 +109,7 @@ public class BookingServiceImpl implements BookingService {
     @Override
     public List<BookingDto> getBookings(int from, int size, Long userId, String state) {
         getUser(userId);
-        Pageable pageable = PageRequest.of(from / size, size);
+        Pageable pageable = FromSizeRequest.of(from, size);
         List<Booking> bookings;
         switch (state) {
             case "ALL":
@@ -116,7 +144,7 @@ public class BookingServiceImpl implements BookingService {
     @Override
     public List<BookingDto> getOwnerBookings(int from, int size, Long userId, String state) {
         getUser(userId);
-        Pageable pageable = PageRequest.of(from / size, size);
+        Pageable pageable = FromSizeRequest.of(from, size);
         List<Booking> bookings;
         switch (state) {
             case "ALL":
@@ -150,8 +178,84 @@ public class BookingServiceImpl implements BookingService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public CursorPage<BookingDto> getBookings(String cursor, int size, Long userId, String state) {
+        size = CursorPage.limitSize(size);
+        getUser(userId);
+        Cursor position = Cursor.decode(cursor);
+        Pageable pageable = PageRequest.of(0, size + 1);
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings;
+        switch (state) {
+            case "ALL":
+                bookings = bookingRepository.findBookerPage(userId, position.getTime(), position.getId(), pageable);
+                break;
+            case "CURRENT":
+                bookings = bookingRepository.findBookerCurrentPage(userId, position.getTime(), position.getId(),
+                        now, pageable);
+                break;
+            case "PAST":
+                bookings = bookingRepository.findBookerPastPage(userId, position.getTime(), position.getId(),
+                        now, pageable);
+                break;
+            case "FUTURE":
+                bookings = bookingRepository.findBookerFuturePage(userId, position.getTime(), position.getId(),
+                        now, pageable);
+                break;
+            case "WAITING":
+                bookings = bookingRepository.findBookerStatusPage(userId, position.getTime(), position.getId(),
+                        Status.WAITING, pageable);
+                break;
+            case "REJECTED":
+                bookings = bookingRepository.findBookerStatusPage(userId, position.getTime(), position.getId(),
+                        Status.REJECTED, pageable);
+                break;
+            default:
+                throw new BadRequestException("Unknown state: UNSUPPORTED_STATUS");
+        }
+        return toCursorPage(bookings, size);
+    }
+
+    @Override
+    public CursorPage<BookingDto> getOwnerBookings(String cursor, int size, Long userId, String state) {
+        size = CursorPage.limitSize(size);
+        getUser(userId);
+        Cursor position = Cursor.decode(cursor);
+        Pageable pageable = PageRequest.of(0, size + 1);
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings;
+        switch (state) {
+            case "ALL":
+                bookings = bookingRepository.findOwnerPage(userId, position.getTime(), position.getId(), pageable);
+                break;
+            case "CURRENT":
+                bookings = bookingRepository.findOwnerCurrentPage(userId, position.getTime(), position.getId(),
+                        now, pageable);
+                break;
+            case "PAST":
+                bookings = bookingRepository.findOwnerPastPage(userId, position.getTime(), position.getId(),
+                        now, pageable);
+                break;
+            case "FUTURE":
+                bookings = bookingRepository.findOwnerFuturePage(userId, position.getTime(), position.getId(),
+                        now, pageable);
+                break;
+            case "WAITING":
+                bookings = bookingRepository.findOwnerStatusPage(userId, position.getTime(), position.getId(),
+                        Status.WAITING, pageable);
+                break;
+            case "REJECTED":
+                bookings = bookingRepository.findOwnerStatusPage(userId, position.getTime(), position.getId(),
+                        Status.REJECTED, pageable);
+                break;
+            default:
+                throw new BadRequestException("Unknown state: UNSUPPORTED_STATUS");
+        }
+        return toCursorPage(bookings, size);
+    }
+
     private void getUser(Long userId) {
-        userService.getUserById(userId);
+        userService.requireExists(userId);
     }
 
     private Booking getBooking(Long bookingId) {
@@ -160,14 +264,28 @@ public class BookingServiceImpl implements BookingService {
                         + bookingId));
     }
 
-    private Booking mapToNewBooking(BookingSaveDto bookingSaveDto, Long bookerId) {
+    /**
+     * Репозиторий возвращает на одну запись больше страницы: если она есть, курсор указывает на последнюю
+     * запись страницы.
+     */
+    private CursorPage<BookingDto> toCursorPage(List<Booking> bookings, int size) {
+        String nextCursor = null;
+        if (bookings.size() > size) {
+            bookings = bookings.subList(0, size);
+            Booking last = bookings.get(size - 1);
+            nextCursor = new Cursor(last.getStart(), last.getId()).encode();
+        }
+        return new CursorPage<>(bookings.stream()
+                .map(BookingMapper::toBookingDto)
+                .collect(Collectors.toList()), nextCursor);
+    }
+
+    private Booking mapToNewBooking(BookingSaveDto bookingSaveDto, Item item, User booker) {
         Booking booking = new Booking();
         booking.setStart(bookingSaveDto.getStart());
         booking.setEnd(bookingSaveDto.getEnd());
-        booking.setItem(itemRepository.findById(bookingSaveDto.getItemId())
-                .orElseThrow(() -> new NotFoundException("Вещи с ID " + bookingSaveDto.getItemId()
-                        + " нет в базе.")));
-        booking.setBooker(UserMapper.toUser(userService.getUserById(bookerId)));
+        booking.setItem(item);
+        booking.setBooker(booker);
         booking.setStatus(Status.WAITING);
         return booking;
     }
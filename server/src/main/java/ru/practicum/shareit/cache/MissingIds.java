@@ -0,0 +1,35 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Идентификаторы, которых недавно не оказалось в базе. Повторный запрос такого идентификатора получает 404
+ * без обращения к базе. Записи живут недолго и удаляются, когда запись с этим идентификатором создается.
+ */
+public abstract class MissingIds {
+    private final Cache<Long, Boolean> ids;
+
+    protected MissingIds(String name, NotFoundCacheProperties properties, MeterRegistry meterRegistry) {
+        this.ids = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, ids, name);
+    }
+
+    public boolean contains(Long id) {
+        return ids.getIfPresent(id) != null;
+    }
+
+    public void add(Long id) {
+        ids.put(id, Boolean.TRUE);
+    }
+
+    public void remove(Long id) {
+        ids.invalidate(id);
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "shareit.not-found-cache")
+public class NotFoundCacheProperties {
+    /**
+     * Сколько отсутствующих идентификаторов каждого вида держать в памяти.
+     */
+    private long maxSize = 10_000;
+    /**
+     * Сколько помнить, что идентификатора нет в базе. Держите коротким: запись, созданная другим экземпляром
+     * сервера, будет невидима до истечения этого времени.
+     */
+    private Duration ttl = Duration.ofSeconds(30);
+}
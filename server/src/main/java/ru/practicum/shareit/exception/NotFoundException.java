@@ -2,11 +2,15 @@ package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Исключение без стека вызовов: оно превращается в ответ 404, и стек в нем никогда не читается,
+ * а запросы несуществующих идентификаторов бывают очень частыми.
+ */
 @Slf4j
 public class NotFoundException extends RuntimeException {
 
     public NotFoundException(String message) {
-        super(message);
-        log.error(message);
+        super(message, null, false, false);
+        log.debug(message);
     }
 }
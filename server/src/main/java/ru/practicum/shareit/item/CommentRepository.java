@@ -1,12 +1,45 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findAllByItemId(Long itemId);
+
+    @Query("SELECT c FROM Comment c " +
+            "JOIN FETCH c.item " +
+            "JOIN FETCH c.author " +
+            "WHERE c.item.id IN ?1 " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<Comment> findAllByItemIdIn(Collection<Long> itemIds);
+
+    @Query("SELECT c FROM Comment c " +
+            "JOIN FETCH c.item " +
+            "JOIN FETCH c.author " +
+            "WHERE c.id IN ?1 " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<Comment> findAllByIdIn(Collection<Long> ids);
+
+    @Query(value = "SELECT t.id FROM (" +
+            "SELECT c.id, c.created, ROW_NUMBER() OVER (PARTITION BY c.item_id " +
+            "ORDER BY c.created DESC, c.id DESC) AS rn " +
+            "FROM comments c WHERE c.item_id IN (?1)) t " +
+            "WHERE t.rn <= ?2", nativeQuery = true)
+    List<Number> findLatestIdsByItemIdIn(Collection<Long> itemIds, int limit);
+
+    @Query("SELECT c.item.id AS itemId, COUNT(c) AS total FROM Comment c " +
+            "WHERE c.item.id IN ?1 " +
+            "GROUP BY c.item.id")
+    List<CommentCount> countByItemIdIn(Collection<Long> itemIds);
+
+    interface CommentCount {
+        Long getItemId();
+
+        Long getTotal();
+    }
 }
@@ -2,12 +2,16 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -21,12 +25,16 @@ public class ItemController {
     private final ItemService itemService;
 
     @GetMapping
-    public List<ItemBookingDto> getItems(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                         @RequestParam(defaultValue = "0") int from,
-                                         @RequestParam(defaultValue = "10") int size) {
-        log.info("Получен GET-запрос на просмотр владельцем с ID={} текущего списка своих вещей, from={}, size={}",
-                userId, from, size);
-        return itemService.getItems(from, size, userId);
+    public ResponseEntity<List<ItemBookingDto>> getItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                         @RequestParam(defaultValue = "0") int from,
+                                                         @RequestParam(defaultValue = "10") int size,
+                                                         @RequestParam(required = false) String cursor) {
+        log.info("Получен GET-запрос на просмотр владельцем с ID={} текущего списка своих вещей, from={}, size={}, " +
+                "cursor={}", userId, from, size, cursor);
+        if (cursor != null) {
+            return itemService.getItems(cursor, size, userId).toResponseEntity();
+        }
+        return ResponseEntity.ok(itemService.getItems(from, size, userId));
     }
 
     @PostMapping
@@ -57,6 +65,16 @@ public class ItemController {
         return itemService.searchItem(from, size, text);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public List<FreeSlotDto> getAvailability(@PathVariable Long itemId,
+                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                             LocalDateTime from,
+                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                             LocalDateTime to) {
+        log.info("Получен GET-запрос на свободные периоды вещи с ID={} c {} по {}", itemId, from, to);
+        return itemService.getAvailability(itemId, from, to);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto createNewComment(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long itemId,
                                        @RequestBody CommentDto commentDto) {
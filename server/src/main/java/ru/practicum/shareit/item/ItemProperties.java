@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "shareit.items")
+public class ItemProperties {
+    /**
+     * Сколько последних отзывов отдавать по каждой вещи, 0 - без ограничения.
+     */
+    private int commentsLimit = 0;
+}
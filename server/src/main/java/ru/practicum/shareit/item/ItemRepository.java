@@ -6,21 +6,61 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findByOwnerIdOrderByIdAsc(Long ownerId, Pageable pageable);
 
+    @Query("SELECT i FROM Item i " +
+            "WHERE i.owner.id = ?1 AND i.id > ?2 " +
+            "ORDER BY i.id")
+    List<Item> findOwnerPage(Long ownerId, Long afterId, Pageable pageable);
+
     List<Item> findAllByRequestId(Long requestId);
 
+    /**
+     * Блокирует строку вещи до конца транзакции, чтобы бронирования одной вещи создавались и подтверждались
+     * по очереди. Вещь загружается отдельно после блокировки: FOR UPDATE в запросе с LEFT JOIN по заявке
+     * PostgreSQL не выполняет.
+     */
+    @Query(value = "SELECT id FROM items WHERE id = ?1 FOR UPDATE", nativeQuery = true)
+    Long lockById(Long itemId);
+
     @Query("SELECT i FROM Item i " +
             "WHERE i.available = true AND " +
             "(LOWER(i.name) LIKE LOWER(CONCAT('%', ?1,'%')) OR " +
             "LOWER(i.description) LIKE LOWER(CONCAT('%', ?1,'%')))")
     List<Item> searchItem(String text, Pageable pageable);
 
+    /**
+     * Тот же поиск подстрокой, что и {@link #searchItem}, но в форме, которую обслуживают частичные GIN-индексы
+     * pg_trgm из schema-search-trigram.sql. Текст передается в нижнем регистре, символы % и _ в нем экранированы.
+     */
+    @Query(value = "SELECT * FROM items i " +
+            "WHERE (LOWER(i.name) LIKE '%' || ?1 || '%' OR LOWER(i.description) LIKE '%' || ?1 || '%') " +
+            "AND i.available = true " +
+            "LIMIT ?3 OFFSET ?2", nativeQuery = true)
+    List<Item> searchItemBySubstring(String text, int offset, int limit);
+
     @Query("SELECT i FROM Item i " +
-            "WHERE i.request IS NOT NULL")
-    List<Item> findAllByRequestIsNotNull();
+            "WHERE i.request.id IN ?1")
+    List<Item> findAllByRequestIdIn(Collection<Long> requestIds);
+
+    @Query("SELECT i.id AS id, i.name AS name, i.description AS description, i.available AS available " +
+            "FROM Item i " +
+            "WHERE i.id > ?1 " +
+            "ORDER BY i.id")
+    List<ItemText> findTextsByIdGreaterThan(Long id, Pageable pageable);
+
+    interface ItemText {
+        Long getId();
+
+        String getName();
+
+        String getDescription();
+
+        Boolean getAvailable();
+    }
 }
@@ -18,4 +18,5 @@ public class ItemBookingDto {
     private BookingDateDto lastBooking;
     private BookingDateDto nextBooking;
     private List<CommentDto> comments;
+    private long commentsCount;
 }
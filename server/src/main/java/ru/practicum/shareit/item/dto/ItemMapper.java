@@ -2,7 +2,7 @@ package ru.practicum.shareit.item.dto;
 
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.dto.BookingDateDto;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.dto.BookingItemDateDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
@@ -40,17 +40,18 @@ public class ItemMapper {
                 item.getAvailable(),
                 new BookingDateDto(),
                 new BookingDateDto(),
-                new ArrayList<>()
+                new ArrayList<>(),
+                0
         );
     }
 
-    public static BookingDateDto toBookingDateDto(Booking booking) {
-        if (booking.getBooker() == null) {
+    public static BookingDateDto toBookingDateDto(BookingItemDateDto booking) {
+        if (booking == null) {
             return null;
         }
         return new BookingDateDto(
                 booking.getId(),
-                booking.getBooker().getId()
+                booking.getBookerId()
         );
     }
 
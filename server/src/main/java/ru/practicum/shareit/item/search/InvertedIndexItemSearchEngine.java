@@ -0,0 +1,322 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Инвертированный индекс по словам названия и описания вещей, хранится в памяти сервера.
+ * Слово запроса совпадает со всеми словами индекса, которые с него начинаются,
+ * вещь попадает в выдачу, если совпали все слова запроса.
+ * При shareit.search.ranked=true выдача упорядочена по BM25F, иначе по порядку индексации вещей: при загрузке
+ * индекса он совпадает с порядком идентификаторов, новые вещи добавляются в конец.
+ * Внутри индекса вещи нумеруются подряд с нуля, так как BitSet и списки слов адресуются int,
+ * а идентификаторы вещей - long.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.backend", havingValue = "index")
+public class InvertedIndexItemSearchEngine implements ItemSearchEngine {
+    private static final int BATCH_SIZE = 1000;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final Comparator<ScoredDoc> WORST_FIRST = Comparator.comparingDouble(ScoredDoc::getScore)
+            .thenComparing(ScoredDoc::getDoc, Comparator.reverseOrder());
+
+    private final ItemRepository itemRepository;
+    private final SearchProperties searchProperties;
+    private final NavigableMap<String, PostingList> postings = new TreeMap<>();
+    private final Map<Integer, Document> documents = new HashMap<>();
+    private final Map<Long, Integer> docsByItemId = new HashMap<>();
+    private long[] itemIds = new long[1024];
+    private int nextDoc;
+    private final BitSet available = new BitSet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long totalNameLength;
+    private long totalDescriptionLength;
+
+    @PostConstruct
+    public void build() {
+        long lastId = 0;
+        List<ItemRepository.ItemText> batch;
+        do {
+            batch = itemRepository.findTextsByIdGreaterThan(lastId, PageRequest.of(0, BATCH_SIZE));
+            for (ItemRepository.ItemText text : batch) {
+                put(text.getId(), text.getName(), text.getDescription(), Boolean.TRUE.equals(text.getAvailable()));
+                lastId = text.getId();
+            }
+        } while (batch.size() == BATCH_SIZE);
+        log.info("Построен поисковый индекс: {} вещей, {} слов", documents.size(), postings.size());
+    }
+
+    @Override
+    public List<Item> search(String text, int from, int size) {
+        Set<String> terms = new LinkedHashSet<>(Tokenizer.tokenize(text));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids;
+        lock.readLock().lock();
+        try {
+            List<Term> matchedTerms = expand(terms);
+            if (matchedTerms.isEmpty()) {
+                return List.of();
+            }
+            BitSet matches = intersect(matchedTerms);
+            ids = searchProperties.isRanked()
+                    ? topRanked(matchedTerms, matches, from, size)
+                    : firstById(matches, from, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return hydrate(ids);
+    }
+
+    @Override
+    public void index(Item item) {
+        put(item.getId(), item.getName(), item.getDescription(), Boolean.TRUE.equals(item.getAvailable()));
+    }
+
+    /**
+     * Для каждого слова запроса собирает списки всех слов индекса с таким началом.
+     * Пустой результат означает, что какое-то слово не нашлось совсем.
+     */
+    private List<Term> expand(Set<String> terms) {
+        List<Term> matchedTerms = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            Collection<PostingList> prefixed = postings.subMap(term, true, term + Character.MAX_VALUE, false)
+                    .values();
+            if (prefixed.isEmpty()) {
+                return List.of();
+            }
+            matchedTerms.add(new Term(prefixed, union(prefixed)));
+        }
+        return matchedTerms;
+    }
+
+    /**
+     * Пересекает множества вещей по словам запроса, начиная с самого короткого, и оставляет только доступные вещи.
+     */
+    private BitSet intersect(List<Term> terms) {
+        List<Term> ordered = new ArrayList<>(terms);
+        ordered.sort(Comparator.comparingInt(term -> term.getDocs().cardinality()));
+        BitSet matches = (BitSet) ordered.get(0).getDocs().clone();
+        matches.and(available);
+        for (int i = 1; i < ordered.size() && !matches.isEmpty(); i++) {
+            matches.and(ordered.get(i).getDocs());
+        }
+        return matches;
+    }
+
+    private List<Long> firstById(BitSet matches, int from, int size) {
+        List<Long> ids = new ArrayList<>(Math.min(size, matches.cardinality()));
+        int skipped = 0;
+        for (int doc = matches.nextSetBit(0); doc >= 0 && ids.size() < size; doc = matches.nextSetBit(doc + 1)) {
+            if (skipped < from) {
+                skipped++;
+            } else {
+                ids.add(itemIds[doc]);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Обходит найденные вещи по возрастанию номера, считает BM25F каждой из них по курсорам в списках слов
+     * и сразу предлагает ее куче, в которой остаются только from + size лучших. Память не зависит от числа
+     * найденных вещей, а полная выдача не сортируется.
+     */
+    private List<Long> topRanked(List<Term> terms, BitSet matches, int from, int size) {
+        int limit = (int) Math.min((long) from + size, Integer.MAX_VALUE);
+        if (matches.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        int docCount = documents.size();
+        double averageNameLength = Math.max(1.0, (double) totalNameLength / docCount);
+        double averageDescriptionLength = Math.max(1.0, (double) totalDescriptionLength / docCount);
+        List<TermCursor> cursors = new ArrayList<>(terms.size());
+        for (Term term : terms) {
+            int documentFrequency = term.getDocs().cardinality();
+            double idf = Math.log(1 + (docCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+            cursors.add(new TermCursor(new ArrayList<>(term.getPostings()), idf));
+        }
+        PriorityQueue<ScoredDoc> heap = new PriorityQueue<>(Math.min(limit, matches.cardinality()), WORST_FIRST);
+        for (int doc = matches.nextSetBit(0); doc >= 0; doc = matches.nextSetBit(doc + 1)) {
+            Document document = documents.get(doc);
+            double score = 0;
+            for (TermCursor cursor : cursors) {
+                cursor.advanceTo(doc);
+                double weighted = searchProperties.getNameWeight() * cursor.getNameFrequency()
+                        / (1 - B + B * document.getNameLength() / averageNameLength)
+                        + searchProperties.getDescriptionWeight() * cursor.getDescriptionFrequency()
+                        / (1 - B + B * document.getDescriptionLength() / averageDescriptionLength);
+                score += cursor.getIdf() * weighted / (K1 + weighted);
+            }
+            ScoredDoc scored = new ScoredDoc(doc, score);
+            if (heap.size() < limit) {
+                heap.add(scored);
+            } else if (WORST_FIRST.compare(scored, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(scored);
+            }
+        }
+        List<ScoredDoc> best = new ArrayList<>(heap);
+        best.sort(WORST_FIRST.reversed());
+        return best.stream()
+                .skip(from)
+                .map(scored -> itemIds[scored.getDoc()])
+                .collect(Collectors.toList());
+    }
+
+    private List<Item> hydrate(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Item> items = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        List<Item> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Item item = items.get(id);
+            if (item != null) {
+                result.add(item);
+            } else {
+                remove(id);
+            }
+        }
+        return result;
+    }
+
+    private void put(Long id, String name, String description, boolean isAvailable) {
+        List<String> nameTokens = Tokenizer.tokenize(name);
+        List<String> descriptionTokens = Tokenizer.tokenize(description);
+        Map<String, int[]> frequencies = new HashMap<>();
+        nameTokens.forEach(token -> frequencies.computeIfAbsent(token, t -> new int[2])[0]++);
+        descriptionTokens.forEach(token -> frequencies.computeIfAbsent(token, t -> new int[2])[1]++);
+        lock.writeLock().lock();
+        try {
+            int doc = docsByItemId.computeIfAbsent(id, this::allocateDoc);
+            removeDoc(doc);
+            frequencies.forEach((token, frequency) -> postings.computeIfAbsent(token, t -> new PostingList())
+                    .add(doc, frequency[0], frequency[1]));
+            documents.put(doc, new Document(frequencies.keySet(), nameTokens.size(), descriptionTokens.size()));
+            totalNameLength += nameTokens.size();
+            totalDescriptionLength += descriptionTokens.size();
+            available.set(doc, isAvailable);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docsByItemId.remove(id);
+            if (doc != null) {
+                removeDoc(doc);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int allocateDoc(Long id) {
+        if (nextDoc == itemIds.length) {
+            itemIds = Arrays.copyOf(itemIds, itemIds.length * 2);
+        }
+        itemIds[nextDoc] = id;
+        return nextDoc++;
+    }
+
+    private void removeDoc(int doc) {
+        Document document = documents.remove(doc);
+        if (document == null) {
+            return;
+        }
+        for (String token : document.getTokens()) {
+            PostingList list = postings.get(token);
+            list.remove(doc);
+            if (list.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+        totalNameLength -= document.getNameLength();
+        totalDescriptionLength -= document.getDescriptionLength();
+        available.clear(doc);
+    }
+
+    private static BitSet union(Collection<PostingList> lists) {
+        BitSet bits = new BitSet();
+        for (PostingList list : lists) {
+            list.addTo(bits);
+        }
+        return bits;
+    }
+
+    @Value
+    private static class Term {
+        Collection<PostingList> postings;
+        BitSet docs;
+    }
+
+    /**
+     * Курсоры по спискам всех слов индекса, начинающихся со слова запроса. Вещи запрашиваются по возрастанию
+     * номера, поэтому курсоры двигаются только вперед.
+     */
+    private static class TermCursor {
+        private final List<PostingList> lists;
+        private final int[] positions;
+        @Getter
+        private final double idf;
+        @Getter
+        private int nameFrequency;
+        @Getter
+        private int descriptionFrequency;
+
+        TermCursor(List<PostingList> lists, double idf) {
+            this.lists = lists;
+            this.positions = new int[lists.size()];
+            this.idf = idf;
+        }
+
+        void advanceTo(int doc) {
+            nameFrequency = 0;
+            descriptionFrequency = 0;
+            for (int i = 0; i < lists.size(); i++) {
+                PostingList list = lists.get(i);
+                int position = list.seek(doc, positions[i]);
+                positions[i] = position;
+                if (position < list.size() && list.doc(position) == doc) {
+                    nameFrequency += list.nameFrequency(position);
+                    descriptionFrequency += list.descriptionFrequency(position);
+                }
+            }
+        }
+    }
+
+    @Value
+    private static class Document {
+        Set<String> tokens;
+        int nameLength;
+        int descriptionLength;
+    }
+
+    @Value
+    private static class ScoredDoc {
+        int doc;
+        double score;
+    }
+}
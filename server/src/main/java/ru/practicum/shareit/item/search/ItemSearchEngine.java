@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Поиск доступных вещей по тексту в названии или описании.
+ * Реализация выбирается свойством shareit.search.backend.
+ */
+public interface ItemSearchEngine {
+
+    List<Item> search(String text, int from, int size);
+
+    /**
+     * Вызывается после сохранения новой или измененной вещи.
+     */
+    default void index(Item item) {
+    }
+}
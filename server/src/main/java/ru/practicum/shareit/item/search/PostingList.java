@@ -0,0 +1,79 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Отсортированный список идентификаторов вещей, содержащих слово,
+ * с числом вхождений слова в название и описание каждой вещи.
+ */
+class PostingList {
+    private int[] docs = new int[4];
+    private int[] nameFrequencies = new int[4];
+    private int[] descriptionFrequencies = new int[4];
+    private int size;
+
+    void add(int doc, int nameFrequency, int descriptionFrequency) {
+        int index = Arrays.binarySearch(docs, 0, size, doc);
+        if (index < 0) {
+            index = -index - 1;
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                nameFrequencies = Arrays.copyOf(nameFrequencies, size * 2);
+                descriptionFrequencies = Arrays.copyOf(descriptionFrequencies, size * 2);
+            }
+            System.arraycopy(docs, index, docs, index + 1, size - index);
+            System.arraycopy(nameFrequencies, index, nameFrequencies, index + 1, size - index);
+            System.arraycopy(descriptionFrequencies, index, descriptionFrequencies, index + 1, size - index);
+            docs[index] = doc;
+            size++;
+        }
+        nameFrequencies[index] = nameFrequency;
+        descriptionFrequencies[index] = descriptionFrequency;
+    }
+
+    void remove(int doc) {
+        int index = Arrays.binarySearch(docs, 0, size, doc);
+        if (index < 0) {
+            return;
+        }
+        System.arraycopy(docs, index + 1, docs, index, size - index - 1);
+        System.arraycopy(nameFrequencies, index + 1, nameFrequencies, index, size - index - 1);
+        System.arraycopy(descriptionFrequencies, index + 1, descriptionFrequencies, index, size - index - 1);
+        size--;
+    }
+
+    /**
+     * Позиция первой вещи с номером не меньше doc, начиная с позиции from.
+     */
+    int seek(int doc, int from) {
+        int index = Arrays.binarySearch(docs, from, size, doc);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int doc(int index) {
+        return docs[index];
+    }
+
+    int nameFrequency(int index) {
+        return nameFrequencies[index];
+    }
+
+    int descriptionFrequency(int index) {
+        return descriptionFrequencies[index];
+    }
+
+    void addTo(BitSet bits) {
+        for (int i = 0; i < size; i++) {
+            bits.set(docs[i]);
+        }
+    }
+}
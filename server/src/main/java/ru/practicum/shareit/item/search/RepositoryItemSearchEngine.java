@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.FromSizeRequest;
+
+import java.util.List;
+
+@Component
+@AllArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.backend", havingValue = "like", matchIfMissing = true)
+public class RepositoryItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, int from, int size) {
+        return itemRepository.searchItem(text, FromSizeRequest.of(from, size));
+    }
+}
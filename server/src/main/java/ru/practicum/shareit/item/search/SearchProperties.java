@@ -0,0 +1,29 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "shareit.search")
+public class SearchProperties {
+    /**
+     * Реализация поиска: like, index или trigram.
+     */
+    private String backend = "like";
+    /**
+     * Сортировать выдачу индекса в памяти по релевантности BM25 вместо порядка идентификаторов.
+     */
+    private boolean ranked = false;
+    /**
+     * Вес совпадения в названии вещи.
+     */
+    private double nameWeight = 2.0;
+    /**
+     * Вес совпадения в описании вещи.
+     */
+    private double descriptionWeight = 1.0;
+}
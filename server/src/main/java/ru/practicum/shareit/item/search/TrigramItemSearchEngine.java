@@ -0,0 +1,33 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Поиск подстрокой на стороне PostgreSQL с теми же результатами, что и по умолчанию, но запрос обслуживают
+ * частичные GIN-индексы pg_trgm из schema-search-trigram.sql, которые создаются только при этом способе поиска.
+ * Состояния в памяти нет, поэтому подходит для нескольких экземпляров сервера.
+ */
+@Component
+@AllArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.backend", havingValue = "trigram")
+public class TrigramItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, int from, int size) {
+        return itemRepository.searchItemBySubstring(escape(text.toLowerCase(Locale.ROOT)), from, size);
+    }
+
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
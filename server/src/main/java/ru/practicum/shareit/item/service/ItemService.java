@@ -1,15 +1,20 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.CursorPage;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
 
     List<ItemBookingDto> getItems(int from, int size, Long userId);
 
+    CursorPage<ItemBookingDto> getItems(String cursor, int size, Long userId);
+
     ItemDto create(Long userId, ItemDto itemDto);
 
     ItemDto update(Long userId, Long itemId, ItemDto itemDto);
@@ -18,6 +23,8 @@ public interface ItemService {
 
     List<ItemDto> searchItem(int from, int size, String text);
 
+    List<FreeSlotDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
+
     CommentDto createComment(Long userId, Long itemId, CommentDto commentDto);
 
 }
@@ -2,47 +2,75 @@ package ru.practicum.shareit.item.service;
 
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingItemDateDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemProperties;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.FromSizeRequest;
+import ru.practicum.shareit.pagination.IdCursor;
 import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.matching.RequestMatcher;
+import ru.practicum.shareit.request.service.RequestFeedCache;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    private static final Set<Status> BLOCKING_STATUSES = EnumSet.of(Status.WAITING, Status.APPROVED);
+
     private final ItemRepository itemRepository;
     private final UserService userService;
     private final CommentRepository commentRepository;
     private final BookingRepository bookingRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemProperties itemProperties;
+    private final ItemSearchEngine itemSearchEngine;
+    private final MissingItemIds missingItemIds;
+    private final RequestMatcher requestMatcher;
+    private final RequestFeedCache requestFeedCache;
 
     @Override
     public List<ItemBookingDto> getItems(int from, int size, Long userId) {
-        Pageable pageable = PageRequest.of(from / size, size);
-        List<Item> items = itemRepository.findByOwnerIdOrderByIdAsc(userId, pageable);
+        List<Item> items = itemRepository.findByOwnerIdOrderByIdAsc(userId, FromSizeRequest.of(from, size));
         if (items.isEmpty()) {
             throw new NotFoundException("У пользователя не найдена такая вещь.");
         }
-        return items.stream()
-                .map(item -> mapToItemBookingDto(item, userId, item.getId()))
-                .collect(Collectors.toList());
+        return mapToItemBookingDtos(items);
+    }
+
+    @Override
+    public CursorPage<ItemBookingDto> getItems(String cursor, int size, Long userId) {
+        size = CursorPage.limitSize(size);
+        IdCursor position = IdCursor.decode(cursor);
+        List<Item> items = itemRepository.findOwnerPage(userId, position.getId(), PageRequest.of(0, size + 1));
+        String nextCursor = null;
+        if (items.size() > size) {
+            items = items.subList(0, size);
+            nextCursor = new IdCursor(items.get(size - 1).getId()).encode();
+        }
+        return new CursorPage<>(items.isEmpty() ? List.of() : mapToItemBookingDtos(items), nextCursor);
     }
 
     @Override
@@ -52,7 +80,14 @@ public class ItemServiceImpl implements ItemService {
         Item item = ItemMapper.toItem(itemDto);
         item.setOwner(owner);
         setRequest(item, itemDto);
-        return ItemMapper.toItemDto(itemRepository.save(item));
+        Item savedItem = itemRepository.save(item);
+        missingItemIds.remove(savedItem.getId());
+        itemSearchEngine.index(savedItem);
+        requestMatcher.suggest(savedItem);
+        if (savedItem.getRequest() != null) {
+            requestFeedCache.invalidate();
+        }
+        return ItemMapper.toItemDto(savedItem);
     }
 
     @Override
@@ -71,14 +106,25 @@ public class ItemServiceImpl implements ItemService {
             item.setDescription(itemDto.getDescription());
         }
         itemRepository.save(item);
+        itemSearchEngine.index(item);
+        requestMatcher.suggest(item);
+        if (item.getRequest() != null) {
+            requestFeedCache.invalidate();
+        }
         return ItemMapper.toItemDto(item);
     }
 
     @Override
     public ItemBookingDto getItemById(Long userId, Long itemId) {
-        return itemRepository.findById(itemId)
-                .map((Item item) -> mapToItemBookingDto(item, userId, itemId))
-                .orElseThrow(() -> new NotFoundException("Не найдена вещь с идентификатором " + itemId));
+        Item item = findItem(itemId);
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingItemDateDto> bookings = List.of();
+        if (Objects.equals(item.getOwner().getId(), userId)) {
+            bookings = getLastAndNextBookings(List.of(itemId), now).getOrDefault(itemId, List.of());
+        }
+        Map<Long, List<CommentDto>> comments = getComments(List.of(itemId));
+        return mapToItemBookingDto(item, bookings, now, comments.getOrDefault(itemId, List.of()),
+                getCommentCounts(List.of(itemId), comments).getOrDefault(itemId, 0L));
     }
 
     @Override
@@ -86,12 +132,22 @@ public class ItemServiceImpl implements ItemService {
         if (text.isBlank()) {
             return List.of();
         }
-        Pageable pageable = PageRequest.of(from / size, size);
-        return itemRepository.searchItem(text, pageable).stream()
+        return itemSearchEngine.search(text, from, size).stream()
                 .map(ItemMapper::toItemDto)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<FreeSlotDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new BadRequestException("Начало периода должно быть раньше его окончания.");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Не найдена вещь с идентификатором " + itemId);
+        }
+        return mergeFreeSlots(bookingRepository.findIntervalsInRange(itemId, BLOCKING_STATUSES, from, to), from, to);
+    }
+
     @Override
     public CommentDto createComment(Long userId, Long itemId, CommentDto commentDto) {
         if (getBookings(userId, itemId).isEmpty()) {
@@ -110,17 +166,54 @@ public class ItemServiceImpl implements ItemService {
         return CommentMapper.toCommentDto(commentRepository.save(comment));
     }
 
-    private List<CommentDto> getCommentsByItemId(Long itemId) {
-        return commentRepository.findAllByItemId(itemId).stream()
-                .map(CommentMapper::toCommentDto)
-                .collect(Collectors.toList());
+    /**
+     * Загружает отзывы сразу для всех вещей страницы, новые первыми.
+     * Если задан лимит shareit.items.comments-limit, по каждой вещи берутся только последние отзывы.
+     */
+    private Map<Long, List<CommentDto>> getComments(List<Long> itemIds) {
+        List<Comment> comments;
+        if (itemProperties.getCommentsLimit() > 0) {
+            List<Long> ids = commentRepository.findLatestIdsByItemIdIn(itemIds, itemProperties.getCommentsLimit())
+                    .stream()
+                    .map(Number::longValue)
+                    .collect(Collectors.toList());
+            comments = ids.isEmpty() ? List.of() : commentRepository.findAllByIdIn(ids);
+        } else {
+            comments = commentRepository.findAllByItemIdIn(itemIds);
+        }
+        return comments.stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())));
+    }
+
+    private Map<Long, Long> getCommentCounts(List<Long> itemIds, Map<Long, List<CommentDto>> comments) {
+        if (itemProperties.getCommentsLimit() > 0) {
+            return commentRepository.countByItemIdIn(itemIds).stream()
+                    .collect(Collectors.toMap(CommentRepository.CommentCount::getItemId,
+                            CommentRepository.CommentCount::getTotal));
+        }
+        return comments.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> (long) entry.getValue().size()));
     }
 
     private Item getItem(Long userId, Long itemId) {
-        userService.getUserById(userId);
+        userService.requireExists(userId);
+        return findItem(itemId);
+    }
+
+    private Item findItem(Long itemId) {
+        if (missingItemIds.contains(itemId)) {
+            throw itemNotFound(itemId);
+        }
         return itemRepository.findById(itemId)
-                .orElseThrow(() -> new NotFoundException("Вещь с идентификатором " + itemId
-                        + " отсутствует в базе."));
+                .orElseThrow(() -> {
+                    missingItemIds.add(itemId);
+                    return itemNotFound(itemId);
+                });
+    }
+
+    private static NotFoundException itemNotFound(Long itemId) {
+        return new NotFoundException("Вещь с идентификатором " + itemId + " отсутствует в базе.");
     }
 
     private void throwIfNotValid(ItemDto itemDto) {
@@ -135,40 +228,76 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
-    private ItemBookingDto mapToItemBookingDto(Item item, Long userId, Long itemId) {
+    /**
+     * Дополняет вещи страницы бронированиями и отзывами, загружая их одним запросом на все вещи.
+     */
+    private List<ItemBookingDto> mapToItemBookingDtos(List<Item> items) {
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, List<BookingItemDateDto>> bookings = getLastAndNextBookings(itemIds, now);
+        Map<Long, List<CommentDto>> comments = getComments(itemIds);
+        Map<Long, Long> commentCounts = getCommentCounts(itemIds, comments);
+        return items.stream()
+                .map(item -> mapToItemBookingDto(item, bookings.getOrDefault(item.getId(), List.of()), now,
+                        comments.getOrDefault(item.getId(), List.of()),
+                        commentCounts.getOrDefault(item.getId(), 0L)))
+                .collect(Collectors.toList());
+    }
+
+    private ItemBookingDto mapToItemBookingDto(Item item, List<BookingItemDateDto> bookings, LocalDateTime now,
+                                               List<CommentDto> comments, long commentsCount) {
         ItemBookingDto itemBookingDto = ItemMapper.toItemBookingDto(item);
-        List<Booking> bookings = bookingRepository
-                .findAllByItemIdAndStatusOrderByEndAsc(itemId, Status.APPROVED);
-        if (bookings.isEmpty() || !Objects.equals(item.getOwner().getId(), userId)) {
-            itemBookingDto.setLastBooking(ItemMapper.toBookingDateDto(new Booking()));
-            itemBookingDto.setNextBooking(ItemMapper.toBookingDateDto(new Booking()));
-        } else {
-            Booking last = bookings.get(0);
-            Booking next = bookings.get(bookings.size() - 1);
-            if (bookings.size() == 1) {
-                itemBookingDto.setLastBooking(ItemMapper.toBookingDateDto(last));
-                itemBookingDto.setNextBooking(ItemMapper.toBookingDateDto(new Booking()));
-            } else {
-                for (Booking booking : bookings) {
-                    if (booking.getEnd().isBefore(LocalDateTime.now())) {
-                        if (booking.getEnd().isAfter(last.getEnd())) {
-                            last = booking;
-                        }
-                    }
-                    if (booking.getStart().isAfter(LocalDateTime.now())) {
-                        if (booking.getEnd().isBefore(next.getEnd())) {
-                            next = booking;
-                        }
-                    }
+        BookingItemDateDto last = null;
+        BookingItemDateDto next = null;
+        for (BookingItemDateDto booking : bookings) {
+            if (!booking.getStart().isAfter(now)) {
+                if (last == null || booking.getStart().isAfter(last.getStart())) {
+                    last = booking;
                 }
-                itemBookingDto.setLastBooking(ItemMapper.toBookingDateDto(last));
-                itemBookingDto.setNextBooking(ItemMapper.toBookingDateDto(next));
+            } else if (next == null || booking.getStart().isBefore(next.getStart())) {
+                next = booking;
             }
         }
-        itemBookingDto.setComments(getCommentsByItemId(item.getId()));
+        itemBookingDto.setLastBooking(ItemMapper.toBookingDateDto(last));
+        itemBookingDto.setNextBooking(ItemMapper.toBookingDateDto(next));
+        itemBookingDto.setComments(comments);
+        itemBookingDto.setCommentsCount(commentsCount);
         return itemBookingDto;
     }
 
+    /**
+     * Загружает одним запросом последнее и ближайшее подтвержденные бронирования для каждой вещи из списка.
+     */
+    private Map<Long, List<BookingItemDateDto>> getLastAndNextBookings(List<Long> itemIds, LocalDateTime now) {
+        return bookingRepository.findLastAndNextByItemIdIn(itemIds, Status.APPROVED, now)
+                .stream()
+                .collect(Collectors.groupingBy(BookingItemDateDto::getItemId));
+    }
+
+    /**
+     * Свободные окна периода [from, to) между бронированиями. Интервалы отсортированы по началу и могут
+     * пересекаться, поэтому достаточно одного прохода с отметкой конца занятого отрезка.
+     */
+    private List<FreeSlotDto> mergeFreeSlots(List<BookingRepository.BookingInterval> intervals, LocalDateTime from,
+                                             LocalDateTime to) {
+        List<FreeSlotDto> slots = new ArrayList<>();
+        LocalDateTime busyUntil = from;
+        for (BookingRepository.BookingInterval interval : intervals) {
+            if (interval.getStart().isAfter(busyUntil)) {
+                slots.add(new FreeSlotDto(busyUntil, interval.getStart()));
+            }
+            if (interval.getEnd().isAfter(busyUntil)) {
+                busyUntil = interval.getEnd();
+            }
+        }
+        if (busyUntil.isBefore(to)) {
+            slots.add(new FreeSlotDto(busyUntil, to));
+        }
+        return slots;
+    }
+
     private List<Booking> getBookings(Long userId, Long itemId) {
         return bookingRepository.findAllByItemIdAndBookerIdAndStatus(itemId, userId, Status.APPROVED)
                 .stream()
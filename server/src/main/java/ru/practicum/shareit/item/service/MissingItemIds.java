@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.cache.MissingIds;
+import ru.practicum.shareit.cache.NotFoundCacheProperties;
+
+@Component
+public class MissingItemIds extends MissingIds {
+
+    public MissingItemIds(NotFoundCacheProperties properties, MeterRegistry meterRegistry) {
+        super("shareit.items.missing_ids", properties, meterRegistry);
+    }
+}
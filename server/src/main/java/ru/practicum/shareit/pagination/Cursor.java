@@ -0,0 +1,47 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.Value;
+import ru.practicum.shareit.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Позиция в выдаче, отсортированной по убыванию (time, id). Клиент получает ее в виде непрозрачной строки
+ * и передает обратно, чтобы получить следующую страницу без OFFSET.
+ */
+@Value
+public class Cursor {
+    /**
+     * Позиция перед первой записью. Значение времени выбрано в пределах, которые поддерживают и H2, и PostgreSQL.
+     */
+    public static final Cursor FIRST = new Cursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    LocalDateTime time;
+    Long id;
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((time + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Пустая строка означает первую страницу.
+     */
+    public static Cursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 2) {
+                throw new BadRequestException("Некорректный курсор: " + cursor);
+            }
+            return new Cursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Некорректный курсор: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.Value;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * Страница выдачи и курсор следующей страницы. Курсор равен null, если записей больше нет.
+ */
+@Value
+public class CursorPage<T> {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    /**
+     * Наибольший размер страницы. Gateway отклоняет запросы с большим size, сервис ограничивает его сам.
+     */
+    public static final int MAX_SIZE = 1000;
+
+    List<T> items;
+    String nextCursor;
+
+    /**
+     * Размер страницы не больше MAX_SIZE: репозиторий запрашивает size + 1 записей, и это не должно переполнять int.
+     */
+    public static int limitSize(int size) {
+        return Math.min(size, MAX_SIZE);
+    }
+
+    /**
+     * Ответ со страницей в теле и курсором следующей страницы в заголовке X-Next-Cursor.
+     */
+    public ResponseEntity<List<T>> toResponseEntity() {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (nextCursor != null) {
+            response.header(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return response.body(items);
+    }
+}
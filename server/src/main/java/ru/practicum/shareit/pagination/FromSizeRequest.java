@@ -0,0 +1,71 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.EqualsAndHashCode;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Страница, которая начинается ровно с элемента from, даже если from не кратно size.
+ */
+@EqualsAndHashCode
+public class FromSizeRequest implements Pageable {
+    private final int from;
+    private final int size;
+    private final Sort sort;
+
+    private FromSizeRequest(int from, int size, Sort sort) {
+        this.from = from;
+        this.size = size;
+        this.sort = sort;
+    }
+
+    public static FromSizeRequest of(int from, int size) {
+        return new FromSizeRequest(from, size, Sort.unsorted());
+    }
+
+    @Override
+    public int getPageNumber() {
+        return from / size;
+    }
+
+    @Override
+    public int getPageSize() {
+        return size;
+    }
+
+    @Override
+    public long getOffset() {
+        return from;
+    }
+
+    @Override
+    public Sort getSort() {
+        return sort;
+    }
+
+    @Override
+    public Pageable next() {
+        return new FromSizeRequest(from + size, size, sort);
+    }
+
+    @Override
+    public Pageable previousOrFirst() {
+        return hasPrevious() ? new FromSizeRequest(Math.max(0, from - size), size, sort) : first();
+    }
+
+    @Override
+    public Pageable first() {
+        return new FromSizeRequest(0, size, sort);
+    }
+
+    @Override
+    public Pageable withPage(int pageNumber) {
+        return PageRequest.of(pageNumber, size, sort);
+    }
+
+    @Override
+    public boolean hasPrevious() {
+        return from > 0;
+    }
+}
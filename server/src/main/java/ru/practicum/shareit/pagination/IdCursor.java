@@ -0,0 +1,38 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.Value;
+import ru.practicum.shareit.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Позиция в выдаче, отсортированной по возрастанию id. Следующая страница начинается с записи, id которой
+ * больше сохраненного.
+ */
+@Value
+public class IdCursor {
+    public static final IdCursor FIRST = new IdCursor(0L);
+
+    Long id;
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.valueOf(id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Пустая строка означает первую страницу.
+     */
+    public static IdCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST;
+        }
+        try {
+            return new IdCursor(Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor),
+                    StandardCharsets.UTF_8)));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Некорректный курсор: " + cursor);
+        }
+    }
+}
@@ -2,10 +2,12 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestSaveDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithResponsesDto;
+import ru.practicum.shareit.request.dto.SuggestionDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
 import java.util.List;
@@ -22,12 +24,26 @@ public class ItemRequestController {
     private final ItemRequestService itemRequestService;
 
     @GetMapping("/all")
-    public List<ItemRequestWithResponsesDto> getItemRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                             @RequestParam(defaultValue = "0") int from,
-                                                             @RequestParam(defaultValue = "10") int size) {
-        log.info("Получен GET-запрос пользователя с ID={} на просмотр текущего списка запросов, from={}, size={}",
+    public ResponseEntity<List<ItemRequestWithResponsesDto>> getItemRequests(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam(defaultValue = "0") int from,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+        log.info("Получен GET-запрос пользователя с ID={} на просмотр текущего списка запросов, from={}, size={}, " +
+                "cursor={}", userId, from, size, cursor);
+        if (cursor != null) {
+            return itemRequestService.getItemRequests(cursor, size, userId).toResponseEntity();
+        }
+        return ResponseEntity.ok(itemRequestService.getItemRequests(from, size, userId));
+    }
+
+    @GetMapping("/suggestions")
+    public List<SuggestionDto> getSuggestions(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                              @RequestParam(defaultValue = "0") int from,
+                                              @RequestParam(defaultValue = "10") int size) {
+        log.info("Получен GET-запрос на подсказки вещей к запросам пользователя с ID={}, from={}, size={}",
                 userId, from, size);
-        return itemRequestService.getItemRequests(from, size, userId);
+        return itemRequestService.getSuggestions(from, size, userId);
     }
 
     @PostMapping
@@ -46,9 +62,17 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public List<ItemRequestWithResponsesDto> getItemRequestsWithResponses(@RequestHeader("X-Sharer-User-Id") Long userId) {
-        log.info("Получен GET-запрос на на получение запросов пользователя с ID={}", userId);
-        return itemRequestService.getItemRequestsWithResponses(userId);
+    public ResponseEntity<List<ItemRequestWithResponsesDto>> getItemRequestsWithResponses(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam(defaultValue = "0") int from,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+        log.info("Получен GET-запрос на на получение запросов пользователя с ID={}, from={}, size={}, cursor={}",
+                userId, from, size, cursor);
+        if (cursor != null) {
+            return itemRequestService.getItemRequestsWithResponses(cursor, size, userId).toResponseEntity();
+        }
+        return ResponseEntity.ok(itemRequestService.getItemRequestsWithResponses(from, size, userId));
     }
 
 }
@@ -2,16 +2,54 @@ package ru.practicum.shareit.request;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
-    List<ItemRequest> findAllByRequesterId(Long requesterId);
+    List<ItemRequest> findAllByRequesterIdOrderByCreatedDescIdDesc(Long requesterId, Pageable pageable);
 
-    List<ItemRequest> findAllByRequesterIdNot(Long userId, Pageable pageable);
+    @Query("SELECT r FROM ItemRequest r " +
+            "WHERE r.requester.id = ?1 AND (r.created < ?2 OR (r.created = ?2 AND r.id < ?3)) " +
+            "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequest> findRequesterPage(Long requesterId, LocalDateTime created, Long id, Pageable pageable);
+
+    List<ItemRequest> findAllByRequesterIdNotOrderByCreatedDescIdDesc(Long userId, Pageable pageable);
+
+    @Query("SELECT r FROM ItemRequest r " +
+            "WHERE r.requester.id <> ?1 AND (r.created < ?2 OR (r.created = ?2 AND r.id < ?3)) " +
+            "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequest> findFeedPage(Long userId, LocalDateTime created, Long id, Pageable pageable);
+
+    @Query("SELECT r FROM ItemRequest r " +
+            "JOIN FETCH r.requester " +
+            "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequest> findRecent(Pageable pageable);
+
+    @Query("SELECT r.id AS id, r.requester.id AS requesterId, r.description AS description, r.created AS created " +
+            "FROM ItemRequest r " +
+            "WHERE r.created >= ?1 AND r.id > ?2 " +
+            "ORDER BY r.id")
+    List<RequestText> findTextsCreatedSince(LocalDateTime since, Long id, Pageable pageable);
+
+    @Query("SELECT r.id FROM ItemRequest r " +
+            "WHERE r.id IN ?1")
+    List<Long> findExistingIds(Collection<Long> ids);
+
+    interface RequestText {
+        Long getId();
+
+        Long getRequesterId();
+
+        String getDescription();
+
+        LocalDateTime getCreated();
+    }
 
 }
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.request;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.request.model.Suggestion;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SuggestionRepository extends JpaRepository<Suggestion, Long> {
+
+    @Query("SELECT s.requestId FROM Suggestion s " +
+            "WHERE s.itemId = ?1")
+    List<Long> findRequestIdsByItemId(Long itemId);
+
+    @Query("SELECT s.id AS id, s.requestId AS requestId, s.score AS score, s.created AS created, " +
+            "i.id AS itemId, i.name AS itemName, i.description AS itemDescription, i.available AS itemAvailable, " +
+            "i.owner.id AS ownerId " +
+            "FROM Suggestion s, Item i " +
+            "WHERE i.id = s.itemId AND s.requesterId = ?1 " +
+            "ORDER BY s.created DESC, s.id DESC")
+    List<SuggestionView> findByRequesterId(Long requesterId, Pageable pageable);
+
+    interface SuggestionView {
+        Long getId();
+
+        Long getRequestId();
+
+        Integer getScore();
+
+        LocalDateTime getCreated();
+
+        Long getItemId();
+
+        String getItemName();
+
+        String getItemDescription();
+
+        Boolean getItemAvailable();
+
+        Long getOwnerId();
+    }
+}
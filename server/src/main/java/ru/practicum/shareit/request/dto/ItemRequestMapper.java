@@ -1,6 +1,8 @@
 package ru.practicum.shareit.request.dto;
 
 import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.SuggestionRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
@@ -35,4 +37,21 @@ public class ItemRequestMapper {
                 new ArrayList<>()
         );
     }
+
+    public static SuggestionDto toSuggestionDto(SuggestionRepository.SuggestionView suggestion) {
+        return new SuggestionDto(
+                suggestion.getId(),
+                suggestion.getRequestId(),
+                suggestion.getScore(),
+                suggestion.getCreated(),
+                new ItemDto(
+                        suggestion.getItemId(),
+                        suggestion.getItemName(),
+                        suggestion.getItemDescription(),
+                        suggestion.getItemAvailable(),
+                        suggestion.getOwnerId(),
+                        null
+                )
+        );
+    }
 }
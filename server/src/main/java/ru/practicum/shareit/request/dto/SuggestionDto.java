@@ -0,0 +1,18 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class SuggestionDto {
+
+    private Long id;
+    private Long requestId;
+    private Integer score;
+    private LocalDateTime created;
+    private ItemDto item;
+}
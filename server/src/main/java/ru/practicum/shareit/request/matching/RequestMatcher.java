@@ -0,0 +1,198 @@
+package ru.practicum.shareit.request.matching;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.Tokenizer;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.SuggestionRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.Suggestion;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Подбирает открытые запросы к новым и измененным вещам. Описания запросов хранятся в памяти как
+ * инвертированный индекс слово -> запросы, поэтому подбор обходит только запросы, у которых есть общие
+ * слова с вещью, а не все открытые запросы. Найденные пары сохраняются в таблицу suggestions.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RequestMatcher {
+    private static final int BATCH_SIZE = 1000;
+
+    private final ItemRequestRepository itemRequestRepository;
+    private final SuggestionRepository suggestionRepository;
+    private final RequestMatchingProperties properties;
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, OpenRequest> requests = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    public void build() {
+        LocalDateTime since = LocalDateTime.now().minus(properties.getOpenFor());
+        long lastId = 0;
+        List<ItemRequestRepository.RequestText> batch;
+        do {
+            batch = itemRequestRepository.findTextsCreatedSince(since, lastId, PageRequest.of(0, BATCH_SIZE));
+            for (ItemRequestRepository.RequestText text : batch) {
+                put(text.getId(), text.getRequesterId(), text.getDescription(), text.getCreated());
+                lastId = text.getId();
+            }
+        } while (batch.size() == BATCH_SIZE);
+        log.info("Построен индекс открытых запросов: {} запросов, {} слов", requests.size(), postings.size());
+    }
+
+    public void add(ItemRequest itemRequest) {
+        put(itemRequest.getId(), itemRequest.getRequester().getId(), itemRequest.getDescription(),
+                itemRequest.getCreated());
+    }
+
+    /**
+     * Сохраняет подсказки для открытых запросов, подходящих к вещи. Пары, которые уже были подсказаны,
+     * и запрос, на который владелец ответил этой вещью явно, пропускаются. Запросы, удаленные вместе
+     * с автором, убираются из индекса.
+     * <p>
+     * Подсказки не должны мешать сохранению вещи, поэтому ошибка только пишется в лог. Так же обрабатывается
+     * нарушение uq_suggestion, когда параллельное изменение той же вещи успело сохранить подсказку первым.
+     */
+    public void suggest(Item item) {
+        try {
+            saveSuggestions(item);
+        } catch (RuntimeException e) {
+            log.warn("Не удалось сохранить подсказки для вещи с ID={}", item.getId(), e);
+        }
+    }
+
+    private void saveSuggestions(Item item) {
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return;
+        }
+        Map<Long, Match> matches = match(item);
+        if (matches.isEmpty()) {
+            return;
+        }
+        if (item.getRequest() != null) {
+            matches.remove(item.getRequest().getId());
+        }
+        suggestionRepository.findRequestIdsByItemId(item.getId()).forEach(matches::remove);
+        if (matches.isEmpty()) {
+            return;
+        }
+        Set<Long> deleted = new HashSet<>(matches.keySet());
+        itemRequestRepository.findExistingIds(matches.keySet()).forEach(deleted::remove);
+        if (!deleted.isEmpty()) {
+            deleted.forEach(matches::remove);
+            remove(deleted);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Suggestion> suggestions = new ArrayList<>(matches.size());
+        matches.forEach((requestId, match) -> suggestions.add(new Suggestion(null, requestId,
+                match.getRequesterId(), item.getId(), match.getScore(), now)));
+        suggestionRepository.saveAll(suggestions);
+        log.debug("Вещь с ID={} подсказана к {} запросам", item.getId(), suggestions.size());
+    }
+
+    /**
+     * Считает общие слова вещи с каждым запросом, у которого есть хотя бы одно общее слово.
+     * Запросы самого владельца не подбираются, просроченные запросы удаляются из индекса.
+     */
+    Map<Long, Match> match(Item item) {
+        Set<String> tokens = tokens(item.getName() + " " + item.getDescription());
+        Long ownerId = item.getOwner() == null ? null : item.getOwner().getId();
+        LocalDateTime openSince = LocalDateTime.now().minus(properties.getOpenFor());
+        Map<Long, Match> matches = new HashMap<>();
+        List<Long> expired = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> overlaps = new HashMap<>();
+            for (String token : tokens) {
+                Set<Long> requestIds = postings.get(token);
+                if (requestIds != null && requestIds.size() <= properties.getMaxRequestsPerToken()) {
+                    requestIds.forEach(requestId -> overlaps.merge(requestId, 1, Integer::sum));
+                }
+            }
+            overlaps.forEach((requestId, overlap) -> {
+                OpenRequest request = requests.get(requestId);
+                if (request.getCreated().isBefore(openSince)) {
+                    expired.add(requestId);
+                } else if (!Objects.equals(request.getRequesterId(), ownerId)
+                        && overlap >= Math.min(properties.getMinOverlap(), request.getTokens().size())) {
+                    matches.put(requestId, new Match(request.getRequesterId(), overlap));
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (!expired.isEmpty()) {
+            remove(expired);
+        }
+        return matches;
+    }
+
+    private void put(Long requestId, Long requesterId, String description, LocalDateTime created) {
+        Set<String> tokens = tokens(description);
+        if (tokens.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            requests.put(requestId, new OpenRequest(requesterId, created, tokens));
+            tokens.forEach(token -> postings.computeIfAbsent(token, t -> new HashSet<>()).add(requestId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(Collection<Long> requestIds) {
+        lock.writeLock().lock();
+        try {
+            for (Long requestId : requestIds) {
+                OpenRequest request = requests.remove(requestId);
+                if (request == null) {
+                    continue;
+                }
+                for (String token : request.getTokens()) {
+                    Set<Long> ids = postings.get(token);
+                    ids.remove(requestId);
+                    if (ids.isEmpty()) {
+                        postings.remove(token);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Set<String> tokens(String text) {
+        Set<String> tokens = new HashSet<>();
+        for (String token : Tokenizer.tokenize(text)) {
+            if (token.length() >= properties.getMinTokenLength()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    @Value
+    static class Match {
+        Long requesterId;
+        int score;
+    }
+
+    @Value
+    private static class OpenRequest {
+        Long requesterId;
+        LocalDateTime created;
+        Set<String> tokens;
+    }
+}
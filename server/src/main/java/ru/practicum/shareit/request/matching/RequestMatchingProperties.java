@@ -0,0 +1,32 @@
+package ru.practicum.shareit.request.matching;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "shareit.requests.matching")
+public class RequestMatchingProperties {
+    /**
+     * Сколько времени после создания запрос считается открытым и участвует в подборе вещей.
+     */
+    private Duration openFor = Duration.ofDays(30);
+    /**
+     * Сколько общих слов нужно вещи и запросу. Запросу из меньшего числа слов достаточно совпадения всех его слов.
+     */
+    private int minOverlap = 2;
+    /**
+     * Более короткие слова (предлоги, союзы) не индексируются.
+     */
+    private int minTokenLength = 3;
+    /**
+     * Слово, встречающееся в большем числе открытых запросов, при подборе пропускается: оно почти ничего
+     * не говорит о вещи, а обход его списка стоил бы дороже всего остального подбора.
+     */
+    private int maxRequestsPerToken = 10_000;
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.request.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Вещь, которая подходит к запросу по словам описания. Хранит только идентификаторы,
+ * чтобы запись и выборка подсказок не тянули связанные сущности.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "suggestions")
+public class Suggestion {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "request_id")
+    private Long requestId;
+    @Column(name = "requester_id")
+    private Long requesterId;
+    @Column(name = "item_id")
+    private Long itemId;
+    private Integer score;
+    private LocalDateTime created;
+}
@@ -1,8 +1,10 @@
 package ru.practicum.shareit.request.service;
 
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestSaveDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithResponsesDto;
+import ru.practicum.shareit.request.dto.SuggestionDto;
 
 import java.util.List;
 
@@ -10,9 +12,15 @@ public interface ItemRequestService {
 
     List<ItemRequestWithResponsesDto> getItemRequests(int from, int size, Long userId);
 
+    CursorPage<ItemRequestWithResponsesDto> getItemRequests(String cursor, int size, Long userId);
+
     ItemRequestDto create(Long userId, ItemRequestSaveDto itemRequestDto);
 
     ItemRequestWithResponsesDto getItemRequestById(Long userId, Long requestId);
 
-    List<ItemRequestWithResponsesDto> getItemRequestsWithResponses(Long userId);
+    List<ItemRequestWithResponsesDto> getItemRequestsWithResponses(int from, int size, Long userId);
+
+    CursorPage<ItemRequestWithResponsesDto> getItemRequestsWithResponses(String cursor, int size, Long userId);
+
+    List<SuggestionDto> getSuggestions(int from, int size, Long userId);
 }
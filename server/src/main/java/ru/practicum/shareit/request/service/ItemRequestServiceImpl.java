@@ -2,24 +2,31 @@ package ru.practicum.shareit.request.service;
 
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.FromSizeRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.SuggestionRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
 import ru.practicum.shareit.request.dto.ItemRequestSaveDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithResponsesDto;
+import ru.practicum.shareit.request.dto.SuggestionDto;
+import ru.practicum.shareit.request.matching.RequestMatcher;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,42 +35,45 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final UserService userService;
     private final ItemRepository itemRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final SuggestionRepository suggestionRepository;
+    private final RequestMatcher requestMatcher;
+    private final RequestFeedCache requestFeedCache;
 
     @Override
     public List<ItemRequestWithResponsesDto> getItemRequests(int from, int size, Long userId) {
-        userService.getUserById(userId);
-        Pageable pageable = PageRequest.of(from / size, size);
+        userService.requireExists(userId);
+        return requestFeedCache.page(userId, from, size, this::loadFeedWindow)
+                .orElseGet(() -> mapToWithResponsesDtos(itemRequestRepository
+                        .findAllByRequesterIdNotOrderByCreatedDescIdDesc(userId, FromSizeRequest.of(from, size))));
+    }
 
-        List<ItemRequest> itemRequests = itemRequestRepository
-                .findAllByRequesterIdNot(userId, pageable);
-        List<ItemDto> itemDtos = itemRepository
-                .findAllByRequestIsNotNull()
-                .stream()
-                .map(ItemMapper::toItemDto)
-                .collect(Collectors.toList());
-        List<ItemRequestWithResponsesDto> requestsWithResponsesDtos = new ArrayList<>();
-        itemRequests.stream().map(ItemRequestMapper::toItemRequestsWithResponsesDto)
-                .forEach(itemRequestWithResponsesDto -> {
-                    itemRequestWithResponsesDto.setItems(itemDtos);
-                    requestsWithResponsesDtos.add(itemRequestWithResponsesDto);
-                });
-        return requestsWithResponsesDtos;
+    @Override
+    public CursorPage<ItemRequestWithResponsesDto> getItemRequests(String cursor, int size, Long userId) {
+        userService.requireExists(userId);
+        Cursor position = Cursor.decode(cursor);
+        int limit = CursorPage.limitSize(size);
+        return requestFeedCache.page(userId, position, limit, this::loadFeedWindow)
+                .orElseGet(() -> toCursorPage(itemRequestRepository.findFeedPage(userId, position.getTime(),
+                        position.getId(), PageRequest.of(0, limit + 1)), limit));
     }
 
     @Override
     public ItemRequestDto create(Long userId, ItemRequestSaveDto itemRequestDto) {
-        userService.getUserById(userId);
+        UserDto requester = userService.getUserById(userId);
         if (itemRequestDto.getDescription() == null || itemRequestDto.getDescription().isBlank()) {
             throw new BadRequestException("Отзыв не может быть пустым");
         }
         ItemRequest itemRequest = ItemRequestMapper.toItemRequest(itemRequestDto);
-        itemRequest.setRequester(UserMapper.toUser(userService.getUserById(userId)));
-        return ItemRequestMapper.toItemRequestDto(itemRequestRepository.save(itemRequest));
+        itemRequest.setRequester(UserMapper.toUser(requester));
+        ItemRequest savedRequest = itemRequestRepository.save(itemRequest);
+        requestMatcher.add(savedRequest);
+        requestFeedCache.invalidate();
+        return ItemRequestMapper.toItemRequestDto(savedRequest);
     }
 
     @Override
     public ItemRequestWithResponsesDto getItemRequestById(Long userId, Long requestId) {
-        userService.getUserById(userId);
+        userService.requireExists(userId);
         ItemRequest itemRequest = itemRequestRepository
                 .findById(requestId)
                 .orElseThrow(() -> new NotFoundException("Запрос с ID = " + requestId + " не найден"));
@@ -78,19 +88,74 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     @Override
-    public List<ItemRequestWithResponsesDto> getItemRequestsWithResponses(Long userId) {
-        userService.getUserById(userId);
-        List<ItemRequest> itemRequests = itemRequestRepository.findAllByRequesterId(userId);
+    public List<ItemRequestWithResponsesDto> getItemRequestsWithResponses(int from, int size, Long userId) {
+        userService.requireExists(userId);
+        return mapToWithResponsesDtos(itemRequestRepository.findAllByRequesterIdOrderByCreatedDescIdDesc(userId,
+                FromSizeRequest.of(from, size)));
+    }
+
+    @Override
+    public CursorPage<ItemRequestWithResponsesDto> getItemRequestsWithResponses(String cursor, int size,
+                                                                                Long userId) {
+        size = CursorPage.limitSize(size);
+        userService.requireExists(userId);
+        Cursor position = Cursor.decode(cursor);
+        return toCursorPage(itemRequestRepository.findRequesterPage(userId, position.getTime(), position.getId(),
+                PageRequest.of(0, size + 1)), size);
+    }
+
+    @Override
+    public List<SuggestionDto> getSuggestions(int from, int size, Long userId) {
+        userService.requireExists(userId);
+        return suggestionRepository.findByRequesterId(userId, FromSizeRequest.of(from, size)).stream()
+                .map(ItemRequestMapper::toSuggestionDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Репозиторий возвращает на одну запись больше страницы: если она есть, курсор указывает на последнюю
+     * запись страницы.
+     */
+    private CursorPage<ItemRequestWithResponsesDto> toCursorPage(List<ItemRequest> itemRequests, int size) {
+        String nextCursor = null;
+        if (itemRequests.size() > size) {
+            itemRequests = itemRequests.subList(0, size);
+            ItemRequest last = itemRequests.get(size - 1);
+            nextCursor = new Cursor(last.getCreated(), last.getId()).encode();
+        }
+        return new CursorPage<>(mapToWithResponsesDtos(itemRequests), nextCursor);
+    }
+
+    private List<RequestFeedCache.Entry> loadFeedWindow(int windowSize) {
+        List<ItemRequest> itemRequests = itemRequestRepository.findRecent(PageRequest.of(0, windowSize));
+        List<ItemRequestWithResponsesDto> dtos = mapToWithResponsesDtos(itemRequests);
+        List<RequestFeedCache.Entry> entries = new ArrayList<>(itemRequests.size());
+        for (int i = 0; i < itemRequests.size(); i++) {
+            entries.add(new RequestFeedCache.Entry(itemRequests.get(i).getRequester().getId(), dtos.get(i)));
+        }
+        return entries;
+    }
+
+    /**
+     * Ответы на все запросы страницы загружаются одним запросом и раскладываются по идентификатору запроса.
+     */
+    private List<ItemRequestWithResponsesDto> mapToWithResponsesDtos(List<ItemRequest> itemRequests) {
+        if (itemRequests.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> requestIds = itemRequests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<ItemDto>> itemsByRequest = itemRepository.findAllByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId(),
+                        Collectors.mapping(ItemMapper::toItemDto, Collectors.toList())));
         List<ItemRequestWithResponsesDto> requestsWithResponsesDtos = new ArrayList<>();
-        itemRequests.forEach(itemRequest -> {
-            ItemRequestWithResponsesDto itemRequestWithResponsesDto = ItemRequestMapper
-                    .toItemRequestsWithResponsesDto(itemRequest);
-            itemRequestWithResponsesDto.setItems(itemRepository.findAllByRequestId(itemRequest.getId())
-                    .stream()
-                    .map(ItemMapper::toItemDto)
-                    .collect(Collectors.toList()));
-            requestsWithResponsesDtos.add(itemRequestWithResponsesDto);
-        });
+        itemRequests.stream().map(ItemRequestMapper::toItemRequestsWithResponsesDto)
+                .forEach(itemRequestWithResponsesDto -> {
+                    itemRequestWithResponsesDto.setItems(itemsByRequest
+                            .getOrDefault(itemRequestWithResponsesDto.getId(), List.of()));
+                    requestsWithResponsesDtos.add(itemRequestWithResponsesDto);
+                });
         return requestsWithResponsesDtos;
     }
 }
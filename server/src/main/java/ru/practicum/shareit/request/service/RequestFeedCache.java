@@ -0,0 +1,162 @@
+package ru.practicum.shareit.request.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.request.dto.ItemRequestWithResponsesDto;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.IntFunction;
+
+/**
+ * Окно самых новых запросов с ответами для ленты GET /requests/all. Лента у всех пользователей одна,
+ * отличается только исключением собственных запросов, поэтому окно общее, а фильтр по автору и нарезка
+ * страницы делаются для каждого вызова. Создание запроса или ответа на него сбрасывает окно.
+ * Если страница выходит за окно, она читается из базы.
+ * <p>
+ * Окно сбрасывается только в том экземпляре сервера, через который прошло изменение: другие экземпляры
+ * увидят его не позже чем через shareit.requests.feed-cache.ttl. Поэтому кэш по умолчанию выключен.
+ */
+@Component
+public class RequestFeedCache {
+    private final RequestFeedProperties properties;
+    private final Counter hits;
+    private final Counter misses;
+    private final Object loadLock = new Object();
+    private volatile Window window;
+
+    public RequestFeedCache(RequestFeedProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.hits = meterRegistry.counter("shareit.requests.feed_cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("shareit.requests.feed_cache.requests", "result", "miss");
+        Gauge.builder("shareit.requests.feed_cache.hit_ratio", this, RequestFeedCache::hitRatio)
+                .description("Доля страниц ленты запросов, отданных из памяти")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Страница ленты по смещению, если она целиком есть в окне.
+     */
+    public Optional<List<ItemRequestWithResponsesDto>> page(Long userId, int from, int size,
+                                                  IntFunction<List<Entry>> loader) {
+        Window current = window(loader);
+        if (current == null) {
+            return Optional.empty();
+        }
+        List<ItemRequestWithResponsesDto> page = new ArrayList<>();
+        int skipped = 0;
+        for (Entry entry : current.getEntries()) {
+            if (Objects.equals(entry.getRequesterId(), userId)) {
+                continue;
+            }
+            if (skipped < from) {
+                skipped++;
+            } else if (page.size() < size) {
+                page.add(entry.getRequest());
+            } else {
+                break;
+            }
+        }
+        return hitOrMiss(current, page.size() == size) ? Optional.of(page) : Optional.empty();
+    }
+
+    /**
+     * Страница ленты после курсора, если она целиком есть в окне.
+     */
+    public Optional<CursorPage<ItemRequestWithResponsesDto>> page(Long userId, Cursor position, int size,
+                                                        IntFunction<List<Entry>> loader) {
+        Window current = window(loader);
+        if (current == null) {
+            return Optional.empty();
+        }
+        List<ItemRequestWithResponsesDto> page = new ArrayList<>();
+        for (Entry entry : current.getEntries()) {
+            if (page.size() > size) {
+                break;
+            }
+            ItemRequestWithResponsesDto request = entry.getRequest();
+            if (!Objects.equals(entry.getRequesterId(), userId) && isAfter(request, position)) {
+                page.add(request);
+            }
+        }
+        if (!hitOrMiss(current, page.size() > size)) {
+            return Optional.empty();
+        }
+        String nextCursor = null;
+        if (page.size() > size) {
+            page = page.subList(0, size);
+            ItemRequestWithResponsesDto last = page.get(size - 1);
+            nextCursor = new Cursor(last.getCreated(), last.getId()).encode();
+        }
+        return Optional.of(new CursorPage<>(page, nextCursor));
+    }
+
+    public void invalidate() {
+        synchronized (loadLock) {
+            window = null;
+        }
+    }
+
+    double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    /**
+     * Страница считается найденной, если набрана полностью или окно содержит всю ленту целиком.
+     */
+    private boolean hitOrMiss(Window current, boolean filled) {
+        if (filled || current.isComplete()) {
+            hits.increment();
+            return true;
+        }
+        misses.increment();
+        return false;
+    }
+
+    private Window window(IntFunction<List<Entry>> loader) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        Window current = window;
+        if (current != null && current.getExpiresAt().isAfter(Instant.now())) {
+            return current;
+        }
+        synchronized (loadLock) {
+            current = window;
+            if (current == null || !current.getExpiresAt().isAfter(Instant.now())) {
+                List<Entry> entries = loader.apply(properties.getWindowSize());
+                current = new Window(entries, entries.size() < properties.getWindowSize(),
+                        Instant.now().plus(properties.getTtl()));
+                window = current;
+            }
+            return current;
+        }
+    }
+
+    private static boolean isAfter(ItemRequestWithResponsesDto request, Cursor position) {
+        int compared = request.getCreated().compareTo(position.getTime());
+        return compared < 0 || (compared == 0 && request.getId() < position.getId());
+    }
+
+    @Value
+    public static class Entry {
+        Long requesterId;
+        ItemRequestWithResponsesDto request;
+    }
+
+    @Value
+    private static class Window {
+        List<Entry> entries;
+        boolean complete;
+        Instant expiresAt;
+    }
+}
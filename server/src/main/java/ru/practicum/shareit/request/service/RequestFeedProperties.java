@@ -0,0 +1,29 @@
+package ru.practicum.shareit.request.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "shareit.requests.feed-cache")
+public class RequestFeedProperties {
+    /**
+     * Отдавать ленту GET /requests/all из памяти. Рассчитано на один экземпляр сервера: при нескольких
+     * экземплярах новые запросы появляются в ленте с задержкой до ttl.
+     */
+    private boolean enabled = false;
+    /**
+     * Сколько самых новых запросов держать в памяти. Страницы дальше этого окна читаются из базы.
+     */
+    private int windowSize = 1000;
+    /**
+     * Наибольший возраст окна. Ограничивает устаревание после изменений, о которых кэш не узнает,
+     * например удаления пользователя вместе с его запросами.
+     */
+    private Duration ttl = Duration.ofMinutes(1);
+}
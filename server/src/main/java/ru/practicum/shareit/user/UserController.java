@@ -2,7 +2,10 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
@@ -18,10 +21,24 @@ import java.util.List;
 @Slf4j
 public class UserController {
     private final UserService userService;
+    private final UserStreamer userStreamer;
 
     @GetMapping
-    public List<UserDto> getUsers() {
-        return userService.getUsers();
+    public ResponseEntity<List<UserDto>> getUsers(@RequestParam(required = false) String cursor,
+                                                  @RequestParam(defaultValue = "10") int size) {
+        if (cursor != null) {
+            log.info("Получен GET-запрос на список пользователей, cursor={}, size={}", cursor, size);
+            return userService.getUsers(cursor, size).toResponseEntity();
+        }
+        return ResponseEntity.ok(userService.getUsers());
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        log.info("Получен GET-запрос на потоковую выгрузку пользователей");
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(userStreamer::writeAll);
     }
 
     @PostMapping
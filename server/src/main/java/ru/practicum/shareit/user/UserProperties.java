@@ -0,0 +1,28 @@
+package ru.practicum.shareit.user;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "shareit.users")
+public class UserProperties {
+    /**
+     * Сколько строк драйвер получает из базы за один раз при потоковой выгрузке пользователей.
+     */
+    private int streamFetchSize = 500;
+    /**
+     * Сколько идентификаторов существующих пользователей держать в памяти для проверки X-Sharer-User-Id.
+     */
+    private long knownIdsMaxSize = 100_000;
+    /**
+     * Сколько помнить, что пользователь существует. Ограничивает время, в течение которого другой экземпляр
+     * сервера может не заметить удаление пользователя.
+     */
+    private Duration knownIdsTtl = Duration.ofMinutes(10);
+}
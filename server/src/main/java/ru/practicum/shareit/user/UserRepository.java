@@ -1,6 +1,8 @@
 package ru.practicum.shareit.user;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
@@ -8,4 +10,20 @@ import java.util.List;
 public interface UserRepository extends JpaRepository<User, Long> {
 
     List<User> findByEmail(String email);
+
+    boolean existsByEmail(String email);
+
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("SELECT u.id AS id, u.email AS email " +
+            "FROM User u " +
+            "WHERE u.id > ?1 " +
+            "ORDER BY u.id")
+    List<UserEmail> findEmailsByIdGreaterThan(Long id, Pageable pageable);
+
+    interface UserEmail {
+        Long getId();
+
+        String getEmail();
+    }
 }
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.user;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Выгружает всех пользователей в JSON-массив, не загружая таблицу в память. Строки читаются курсором
+ * вперед порциями по shareit.users.stream-fetch-size и сразу пишутся в ответ. PostgreSQL отдает строки
+ * порциями только внутри транзакции, поэтому чтение идет в транзакции только для чтения. Если чтение
+ * оборвалось, массив остается незакрытым, чтобы клиент не принял часть пользователей за полный список.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserStreamer {
+    private static final String SELECT_USERS = "SELECT id, name, email FROM users ORDER BY id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final UserProperties userProperties;
+
+    public void writeAll(OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT)) {
+            generator.writeStartArray();
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            readOnly.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(SELECT_USERS,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(userProperties.getStreamFetchSize());
+                return statement;
+            }, (RowCallbackHandler) rs -> writeUser(generator, rs)));
+            generator.writeEndArray();
+        }
+    }
+
+    private void writeUser(JsonGenerator generator, ResultSet rs) throws SQLException {
+        try {
+            generator.writeStartObject();
+            generator.writeNumberField("id", rs.getLong("id"));
+            generator.writeStringField("name", rs.getString("name"));
+            generator.writeStringField("email", rs.getString("email"));
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package ru.practicum.shareit.user.email;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Считающий фильтр Блума по e-mail пользователей. Вместо битов хранит 4-битные счетчики, поэтому e-mail можно
+ * удалить при удалении пользователя или смене адреса. Счетчик, дошедший до 15, больше не меняется:
+ * так переполнение может дать лишнее срабатывание, но не пропуск занятого e-mail.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.users.email-filter.enabled", havingValue = "true")
+public class CountingBloomEmailFilter implements EmailFilter {
+    private static final int BATCH_SIZE = 1000;
+    private static final int COUNTERS_PER_WORD = 16;
+    private static final int MAX_COUNT = 15;
+
+    private final UserRepository userRepository;
+    private final AtomicLongArray counters;
+    private final int size;
+    private final int hashes;
+    private final Counter absent;
+    private final Counter maybe;
+    private final Counter falsePositives;
+
+    public CountingBloomEmailFilter(UserRepository userRepository, EmailFilterProperties properties,
+                                    MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        int expected = Math.max(1, properties.getExpectedUsers());
+        double bits = -expected * Math.log(properties.getFalsePositiveRate()) / (Math.log(2) * Math.log(2));
+        this.size = (int) Math.max(COUNTERS_PER_WORD, Math.ceil(bits));
+        this.hashes = (int) Math.max(1, Math.round(bits / expected * Math.log(2)));
+        this.counters = new AtomicLongArray((size + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD);
+        this.absent = meterRegistry.counter("shareit.users.email_filter.checks", "result", "absent");
+        this.maybe = meterRegistry.counter("shareit.users.email_filter.checks", "result", "maybe");
+        this.falsePositives = meterRegistry.counter("shareit.users.email_filter.false_positives");
+        Gauge.builder("shareit.users.email_filter.false_positive_rate", this, CountingBloomEmailFilter::falsePositiveRate)
+                .description("Доля свободных e-mail, которые фильтр отправил на проверку в базу")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void build() {
+        long lastId = 0;
+        long total = 0;
+        List<UserRepository.UserEmail> batch;
+        do {
+            batch = userRepository.findEmailsByIdGreaterThan(lastId, PageRequest.of(0, BATCH_SIZE));
+            for (UserRepository.UserEmail email : batch) {
+                add(email.getEmail());
+                lastId = email.getId();
+            }
+            total += batch.size();
+        } while (batch.size() == BATCH_SIZE);
+        log.info("Построен фильтр e-mail: {} адресов, {} счетчиков, {} хеш-функций", total, size, hashes);
+    }
+
+    @Override
+    public boolean mightContain(String email) {
+        long hash = hash(email);
+        for (int i = 0; i < hashes; i++) {
+            if (count(index(hash, i)) == 0) {
+                absent.increment();
+                return false;
+            }
+        }
+        maybe.increment();
+        return true;
+    }
+
+    @Override
+    public void add(String email) {
+        long hash = hash(email);
+        for (int i = 0; i < hashes; i++) {
+            update(index(hash, i), 1);
+        }
+    }
+
+    @Override
+    public void remove(String email) {
+        long hash = hash(email);
+        for (int i = 0; i < hashes; i++) {
+            update(index(hash, i), -1);
+        }
+    }
+
+    @Override
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    double falsePositiveRate() {
+        double negatives = absent.count() + falsePositives.count();
+        return negatives == 0 ? 0 : falsePositives.count() / negatives;
+    }
+
+    private int count(int index) {
+        long word = counters.get(index / COUNTERS_PER_WORD);
+        return (int) (word >>> shift(index)) & MAX_COUNT;
+    }
+
+    private void update(int index, int delta) {
+        int word = index / COUNTERS_PER_WORD;
+        int shift = shift(index);
+        while (true) {
+            long current = counters.get(word);
+            int count = (int) (current >>> shift) & MAX_COUNT;
+            if (count == MAX_COUNT || (delta < 0 && count == 0)) {
+                return;
+            }
+            if (counters.compareAndSet(word, current, current + ((long) delta << shift))) {
+                return;
+            }
+        }
+    }
+
+    private static int shift(int index) {
+        return (index % COUNTERS_PER_WORD) * 4;
+    }
+
+    /**
+     * Позиции счетчиков получаются двойным хешированием из двух половин одного 64-битного хеша.
+     */
+    private int index(long hash, int i) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        return Math.floorMod(h1 + i * h2, size);
+    }
+
+    private static long hash(String email) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : email.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
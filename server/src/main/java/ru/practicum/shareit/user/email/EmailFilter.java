@@ -0,0 +1,27 @@
+package ru.practicum.shareit.user.email;
+
+/**
+ * Предварительная проверка занятости e-mail перед запросом к базе. Отрицательный ответ точен,
+ * положительный означает, что e-mail нужно проверить в базе.
+ * Реализация выбирается свойством shareit.users.email-filter.enabled.
+ */
+public interface EmailFilter {
+
+    boolean mightContain(String email);
+
+    /**
+     * Вызывается после сохранения пользователя с новым e-mail.
+     */
+    void add(String email);
+
+    /**
+     * Вызывается после удаления пользователя или смены его e-mail.
+     */
+    void remove(String email);
+
+    /**
+     * Фильтр пропустил e-mail, которого в базе не оказалось.
+     */
+    default void recordFalsePositive() {
+    }
+}
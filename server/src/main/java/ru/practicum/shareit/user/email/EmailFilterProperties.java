@@ -0,0 +1,25 @@
+package ru.practicum.shareit.user.email;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "shareit.users.email-filter")
+public class EmailFilterProperties {
+    /**
+     * Держать в памяти фильтр Блума по e-mail пользователей.
+     */
+    private boolean enabled = false;
+    /**
+     * Ожидаемое число пользователей, по нему выбирается размер фильтра.
+     */
+    private int expectedUsers = 1_000_000;
+    /**
+     * Допустимая доля ложных срабатываний при ожидаемом числе пользователей.
+     */
+    private double falsePositiveRate = 0.01;
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.user.email;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Фильтр выключен: каждая проверка e-mail идет в базу.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.users.email-filter.enabled", havingValue = "false", matchIfMissing = true)
+public class NoOpEmailFilter implements EmailFilter {
+
+    @Override
+    public boolean mightContain(String email) {
+        return true;
+    }
+
+    @Override
+    public void add(String email) {
+    }
+
+    @Override
+    public void remove(String email) {
+    }
+}
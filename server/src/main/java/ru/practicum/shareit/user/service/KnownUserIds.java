@@ -0,0 +1,38 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.UserProperties;
+
+/**
+ * Идентификаторы пользователей, существование которых уже проверено в базе. Размер и время жизни записей
+ * ограничены, удаленный пользователь убирается из кэша сразу.
+ */
+@Component
+public class KnownUserIds {
+    private final Cache<Long, Boolean> ids;
+
+    public KnownUserIds(UserProperties properties, MeterRegistry meterRegistry) {
+        this.ids = Caffeine.newBuilder()
+                .maximumSize(properties.getKnownIdsMaxSize())
+                .expireAfterWrite(properties.getKnownIdsTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, ids, "shareit.users.known_ids");
+    }
+
+    public boolean contains(Long userId) {
+        return ids.getIfPresent(userId) != null;
+    }
+
+    public void add(Long userId) {
+        ids.put(userId, Boolean.TRUE);
+    }
+
+    public void remove(Long userId) {
+        ids.invalidate(userId);
+    }
+}
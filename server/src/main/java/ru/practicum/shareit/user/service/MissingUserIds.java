@@ -0,0 +1,14 @@
+package ru.practicum.shareit.user.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.cache.MissingIds;
+import ru.practicum.shareit.cache.NotFoundCacheProperties;
+
+@Component
+public class MissingUserIds extends MissingIds {
+
+    public MissingUserIds(NotFoundCacheProperties properties, MeterRegistry meterRegistry) {
+        super("shareit.users.missing_ids", properties, meterRegistry);
+    }
+}
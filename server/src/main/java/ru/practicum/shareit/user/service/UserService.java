@@ -1,5 +1,6 @@
 package ru.practicum.shareit.user.service;
 
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
@@ -8,12 +9,19 @@ public interface UserService {
 
     List<UserDto> getUsers();
 
+    CursorPage<UserDto> getUsers(String cursor, int size);
+
     UserDto create(UserDto userDto);
 
     UserDto update(UserDto userDto, Long userId);
 
     UserDto getUserById(Long userId);
 
+    /**
+     * Проверяет, что пользователь существует, не загружая его. Для проверки заголовка X-Sharer-User-Id.
+     */
+    void requireExists(Long userId);
+
     UserDto delete(Long userId);
 
 
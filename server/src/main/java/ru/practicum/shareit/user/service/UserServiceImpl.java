@@ -1,13 +1,20 @@
 package ru.practicum.shareit.user.service;
 
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.IdCursor;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.email.EmailFilter;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
@@ -18,6 +25,9 @@ import java.util.stream.Collectors;
 @AllArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final EmailFilter emailFilter;
+    private final KnownUserIds knownUserIds;
+    private final MissingUserIds missingUserIds;
 
     @Override
     public List<UserDto> getUsers() {
@@ -26,27 +36,47 @@ public class UserServiceImpl implements UserService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public CursorPage<UserDto> getUsers(String cursor, int size) {
+        size = CursorPage.limitSize(size);
+        IdCursor position = IdCursor.decode(cursor);
+        List<User> users = userRepository.findByIdGreaterThanOrderByIdAsc(position.getId(),
+                PageRequest.of(0, size + 1));
+        String nextCursor = null;
+        if (users.size() > size) {
+            users = users.subList(0, size);
+            nextCursor = new IdCursor(users.get(size - 1).getId()).encode();
+        }
+        return new CursorPage<>(users.stream()
+                .map(UserMapper::toUserDto)
+                .collect(Collectors.toList()), nextCursor);
+    }
+
     @Override
     public UserDto create(UserDto userDto) throws BadRequestException, NotFoundException {
         throwIfNotValid(userDto);
         User user = userRepository.save(UserMapper.toUser(userDto));
+        emailFilter.add(user.getEmail());
+        knownUserIds.add(user.getId());
+        missingUserIds.remove(user.getId());
         return UserMapper.toUserDto(user);
     }
 
     @Override
     public UserDto update(UserDto userDto, Long userId) {
-        if (Objects.equals(userDto.getEmail(), getUserById(userId).getEmail())) {
+        UserDto current = getUserById(userId);
+        if (Objects.equals(userDto.getEmail(), current.getEmail())) {
             userDto.setId(userId);
-            userDto.setName(getUserById(userId).getName());
+            userDto.setName(current.getName());
             return userDto;
         } else {
             throwIfEmailExist(userDto);
             User user = userRepository.findById(userId)
-                    .orElseThrow(() -> new NotFoundException("Пользователя с идентификатором " + userId
-                            + " нет в базе."));
+                    .orElseThrow(() -> userNotFound(userId));
             if (userDto.getName() != null) {
                 user.setName(userDto.getName());
             }
+            String oldEmail = user.getEmail();
             if (userDto.getEmail() != null) {
                 if (userRepository.findByEmail(userDto.getEmail()).stream()
                         .allMatch(u -> u.getEmail().equals(userDto.getEmail()))) {
@@ -54,24 +84,72 @@ public class UserServiceImpl implements UserService {
                 }
             }
             userRepository.save(user);
+            if (!Objects.equals(oldEmail, user.getEmail())) {
+                emailFilter.remove(oldEmail);
+                emailFilter.add(user.getEmail());
+            }
             return UserMapper.toUserDto(user);
         }
     }
 
     @Override
     public UserDto getUserById(Long userId) {
+        if (missingUserIds.contains(userId)) {
+            throw userNotFound(userId);
+        }
         return userRepository.findById(userId)
                 .map(UserMapper::toUserDto)
-                .orElseThrow(() -> new NotFoundException("Пользователя с идентификатором " + userId + " нет в базе."));
+                .orElseThrow(() -> {
+                    missingUserIds.add(userId);
+                    return userNotFound(userId);
+                });
     }
 
     @Override
+    public void requireExists(Long userId) {
+        if (knownUserIds.contains(userId)) {
+            return;
+        }
+        if (missingUserIds.contains(userId)) {
+            throw userNotFound(userId);
+        }
+        if (!userRepository.existsById(userId)) {
+            missingUserIds.add(userId);
+            throw userNotFound(userId);
+        }
+        knownUserIds.add(userId);
+    }
+
+    @Override
+    @Transactional
     public UserDto delete(Long userId) {
         UserDto userDto = getUserById(userId);
         userRepository.deleteById(userId);
+        afterCommit(() -> {
+            knownUserIds.remove(userId);
+            missingUserIds.add(userId);
+            emailFilter.remove(userDto.getEmail());
+        });
         return userDto;
     }
 
+    /**
+     * Кэши меняются только после фиксации транзакции: до нее параллельный requireExists еще видит пользователя
+     * в базе и вернул бы его в KnownUserIds, а при откате кэши разошлись бы с базой.
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
     private void throwIfNotValid(UserDto userDto) {
         if (userDto.getEmail() == null || userDto.getEmail().isBlank() || (!userDto.getEmail().contains("@"))) {
             throw new BadRequestException("Электронная почта не может быть пустой и должна содержать символ @");
@@ -82,8 +160,26 @@ public class UserServiceImpl implements UserService {
     }
 
     private void throwIfEmailExist(UserDto userDto) {
-        if (getUsers().stream().anyMatch(u -> u.getEmail().equals(userDto.getEmail()))) {
+        if (userDto.getEmail() != null && emailExists(userDto.getEmail())) {
             throw new ConflictException("Е-mail " + userDto.getEmail() + " уже существует");
         }
     }
+
+    /**
+     * Проверяет e-mail по уникальному индексу. Если фильтр в памяти уверен, что e-mail свободен, база не нужна.
+     */
+    private boolean emailExists(String email) {
+        if (!emailFilter.mightContain(email)) {
+            return false;
+        }
+        boolean exists = userRepository.existsByEmail(email);
+        if (!exists) {
+            emailFilter.recordFalsePositive();
+        }
+        return exists;
+    }
+
+    private static NotFoundException userNotFound(Long userId) {
+        return new NotFoundException("Пользователя с идентификатором " + userId + " нет в базе.");
+    }
 }
@@ -1,4 +1,4 @@
-DROP TABLE IF EXISTS users, requests, items, bookings, comments cascade;
+DROP TABLE IF EXISTS users, requests, items, bookings, comments, suggestions cascade;
 
 CREATE TABLE IF NOT EXISTS users (
   id    BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
@@ -45,3 +45,33 @@ CREATE TABLE IF NOT EXISTS comments (
   CONSTRAINT pk_comment PRIMARY KEY (id)
 );
 
+CREATE TABLE IF NOT EXISTS suggestions (
+  id           BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  request_id   BIGINT                                  NOT NULL REFERENCES requests (id) ON delete CASCADE,
+  requester_id BIGINT                                  NOT NULL REFERENCES users (id) ON delete CASCADE,
+  item_id      BIGINT                                  NOT NULL REFERENCES items (id) ON delete CASCADE,
+  score        INTEGER                                 NOT NULL,
+  created      TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+  CONSTRAINT pk_suggestion PRIMARY KEY (id),
+  CONSTRAINT uq_suggestion UNIQUE (request_id, item_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_items_owner_id ON items (owner_id, id);
+
+CREATE INDEX IF NOT EXISTS idx_requests_created ON requests (created DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_requests_requester_created ON requests (requester_id, created DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_items_request_id ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (user_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status ON bookings (user_id, status, start_date DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status ON bookings (item_id, status, start_date);
+
+CREATE INDEX IF NOT EXISTS idx_suggestions_requester ON suggestions (requester_id, created DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_suggestions_item ON suggestions (item_id);
@@ -0,0 +1,198 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.pagination.Cursor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверяет планы запросов BookingRepository: ни один запрос не должен читать таблицы полным сканированием,
+ * а каждый индекс bookings из schema.sql должен обслуживать хотя бы один запрос. SQL перехватывается у Hibernate
+ * и передается в EXPLAIN на заполненной базе.
+ */
+@SpringBootTest
+class BookingRepositoryPlanTest {
+    private static final int USERS = 50;
+    private static final int ITEMS = 500;
+    private static final int BOOKINGS = 5000;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private SqlRecorder sqlRecorder;
+
+    private final Pageable pageable = PageRequest.of(0, 10);
+    private final LocalDateTime now = LocalDateTime.now();
+    private final LocalDateTime start = Cursor.FIRST.getTime();
+    private final Long id = Cursor.FIRST.getId();
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 1; i <= USERS; i++) {
+            users.add(new Object[]{i, "user" + i, "user" + i + "@email.ru"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, name, email) VALUES (?, ?, ?)", users);
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 1; i <= ITEMS; i++) {
+            items.add(new Object[]{i, "item" + i, "description", true, i % USERS + 1});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO items (id, name, description, available, owner_id) " +
+                "VALUES (?, ?, ?, ?, ?)", items);
+        List<Object[]> bookings = new ArrayList<>();
+        for (int i = 1; i <= BOOKINGS; i++) {
+            LocalDateTime bookingStart = now.minusDays(BOOKINGS / 2).plusDays(i);
+            bookings.add(new Object[]{i, bookingStart, bookingStart.plusHours(2), i % ITEMS + 1, i % USERS + 1,
+                    Status.values()[i % Status.values().length].name()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (id, start_date, end_date, item_id, user_id, status) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", bookings);
+        jdbcTemplate.execute("ANALYZE");
+        sqlRecorder.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void bookerQueriesUseIndexesTest() {
+        callBookerQueries();
+
+        assertNoTableScans();
+    }
+
+    @Test
+    void ownerQueriesUseIndexesTest() {
+        callOwnerQueries();
+
+        assertNoTableScans();
+    }
+
+    @Test
+    void itemQueriesUseIndexesTest() {
+        callItemQueries();
+
+        assertNoTableScans();
+    }
+
+    @Test
+    void everyBookingIndexIsUsedTest() {
+        callBookerQueries();
+        callOwnerQueries();
+        callItemQueries();
+        String plans = sqlRecorder.getStatements().stream()
+                .map(this::explain)
+                .collect(Collectors.joining("\n"));
+
+        List<String> indexes = jdbcTemplate.queryForList("SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES " +
+                "WHERE TABLE_NAME = 'BOOKINGS' AND INDEX_NAME LIKE 'IDX_%'", String.class);
+
+        assertFalse(indexes.isEmpty());
+        for (String index : indexes) {
+            assertTrue(plans.contains("PUBLIC." + index + ":"), () -> "Индекс " + index + " не используется");
+        }
+    }
+
+    private void callBookerQueries() {
+        bookingRepository.findByBookerIdOrderByStartDesc(1L, pageable);
+        bookingRepository.findByBookerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(1L, now, now, pageable);
+        bookingRepository.findByBookerIdAndEndIsBeforeOrderByStartDesc(1L, now, pageable);
+        bookingRepository.findByBookerIdAndStartIsAfterOrderByStartDesc(1L, now, pageable);
+        bookingRepository.findByBookerIdAndStatusOrderByStartDesc(1L, Status.WAITING, pageable);
+        bookingRepository.findBookerPage(1L, start, id, pageable);
+        bookingRepository.findBookerCurrentPage(1L, start, id, now, pageable);
+        bookingRepository.findBookerPastPage(1L, start, id, now, pageable);
+        bookingRepository.findBookerFuturePage(1L, start, id, now, pageable);
+        bookingRepository.findBookerStatusPage(1L, start, id, Status.WAITING, pageable);
+    }
+
+    private void callOwnerQueries() {
+        bookingRepository.findByItemOwnerIdOrderByStartDesc(1L, pageable);
+        bookingRepository.findByItemOwnerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(1L, now, now, pageable);
+        bookingRepository.findByItemOwnerIdAndEndIsBeforeOrderByStartDesc(1L, now, pageable);
+        bookingRepository.findByItemOwnerIdAndStartIsAfterOrderByStartDesc(1L, now, pageable);
+        bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(1L, Status.WAITING, pageable);
+        bookingRepository.findOwnerPage(1L, start, id, pageable);
+        bookingRepository.findOwnerCurrentPage(1L, start, id, now, pageable);
+        bookingRepository.findOwnerPastPage(1L, start, id, now, pageable);
+        bookingRepository.findOwnerFuturePage(1L, start, id, now, pageable);
+        bookingRepository.findOwnerStatusPage(1L, start, id, Status.WAITING, pageable);
+    }
+
+    private void callItemQueries() {
+        bookingRepository.findLastAndNextByItemIdIn(List.of(1L, 2L), Status.APPROVED, now);
+        bookingRepository.findAllByItemIdAndBookerIdAndStatus(1L, 2L, Status.APPROVED);
+        bookingRepository.findOverlappingIds(1L, List.of(Status.WAITING, Status.APPROVED), now, now.plusDays(1),
+                PageRequest.of(0, 1));
+        bookingRepository.findIntervalsInRange(1L, List.of(Status.WAITING, Status.APPROVED), now, now.plusDays(30));
+    }
+
+    private void assertNoTableScans() {
+        for (String sql : sqlRecorder.getStatements()) {
+            String plan = explain(sql);
+            assertFalse(plan.contains("tableScan"), () -> "Полное сканирование таблицы в плане запроса:\n" + plan);
+        }
+    }
+
+    private String explain(String sql) {
+        int parameters = (int) sql.chars().filter(c -> c == '?').count();
+        return jdbcTemplate.query("EXPLAIN " + sql, statement -> {
+            for (int i = 1; i <= parameters; i++) {
+                statement.setObject(i, null);
+            }
+        }, (rs, rowNum) -> rs.getString(1)).stream().collect(Collectors.joining("\n"));
+    }
+
+    static class SqlRecorder implements StatementInspector {
+        private final List<String> statements = new ArrayList<>();
+
+        @Override
+        public synchronized String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+
+        synchronized List<String> getStatements() {
+            return new ArrayList<>(statements);
+        }
+
+        synchronized void clear() {
+            statements.clear();
+        }
+    }
+
+    @TestConfiguration
+    static class SqlRecorderConfig {
+        @Bean
+        SqlRecorder sqlRecorder() {
+            return new SqlRecorder();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer sqlRecorderCustomizer(SqlRecorder sqlRecorder) {
+            return properties -> properties.put("hibernate.session_factory.statement_inspector", sqlRecorder);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingSaveDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Одновременные бронирования одной вещи на пересекающиеся интервалы: сохраниться должны только
+ * непересекающиеся бронирования, остальные запросы получают ConflictException. То же касается
+ * подтверждения ранее отклоненного бронирования.
+ */
+@SpringBootTest
+class BookingServiceConcurrencyTest {
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS = 64;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Item item;
+    private final List<User> bookers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(new User(null, "owner", "owner@email.ru"));
+        for (int i = 0; i < THREADS; i++) {
+            bookers.add(userRepository.save(new User(null, "booker" + i, "booker" + i + "@email.ru")));
+        }
+        item = itemRepository.save(new Item(null, "item", "item description", true, owner, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void concurrentCreateLeavesNoOverlapsTest() throws Exception {
+        LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            LocalDateTime start = base.plusHours(i % 8);
+            BookingSaveDto bookingDto = new BookingSaveDto(null, start, start.plusHours(3), item.getId());
+            Long bookerId = bookers.get(i % THREADS).getId();
+            results.add(executor.submit(() -> {
+                startSignal.await();
+                try {
+                    bookingService.create(bookerId, bookingDto);
+                    return true;
+                } catch (ConflictException e) {
+                    return false;
+                }
+            }));
+        }
+        startSignal.countDown();
+        int created = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(30, TimeUnit.SECONDS)) {
+                created++;
+            }
+        }
+        executor.shutdown();
+
+        List<Booking> bookings = bookingRepository.findAll().stream()
+                .filter(booking -> booking.getItem().getId().equals(item.getId()))
+                .collect(Collectors.toList());
+
+        assertTrue(created > 0);
+        assertEquals(created, bookings.size());
+        for (int i = 0; i < bookings.size(); i++) {
+            for (int j = i + 1; j < bookings.size(); j++) {
+                Booking first = bookings.get(i);
+                Booking second = bookings.get(j);
+                assertFalse(first.getStart().isBefore(second.getEnd()) && second.getStart().isBefore(first.getEnd()),
+                        "Пересекаются бронирования " + first.getId() + " и " + second.getId());
+            }
+        }
+    }
+
+    @Test
+    void approveRejectedBookingOverlappingApprovedTest() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        Long ownerId = item.getOwner().getId();
+        BookingDto rejected = bookingService.create(bookers.get(0).getId(),
+                new BookingSaveDto(null, start, start.plusHours(3), item.getId()));
+        bookingService.update(ownerId, rejected.getId(), false);
+        BookingDto approved = bookingService.create(bookers.get(1).getId(),
+                new BookingSaveDto(null, start.plusHours(1), start.plusHours(4), item.getId()));
+        bookingService.update(ownerId, approved.getId(), true);
+
+        assertThrows(ConflictException.class, () -> bookingService.update(ownerId, rejected.getId(), true));
+        assertEquals(Status.REJECTED, bookingRepository.findById(rejected.getId()).orElseThrow().getStatus());
+
+        BookingDto later = bookingService.create(bookers.get(2).getId(),
+                new BookingSaveDto(null, start.plusHours(5), start.plusHours(6), item.getId()));
+        bookingService.update(ownerId, later.getId(), false);
+
+        assertEquals(Status.APPROVED, bookingService.update(ownerId, later.getId(), true).getStatus());
+    }
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.booking.service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -14,9 +15,13 @@ import ru.practicum.shareit.booking.dto.BookingSaveDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.FromSizeRequest;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
@@ -31,6 +36,11 @@ import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.catchThrowable;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -85,6 +95,11 @@ public class BookingServiceImplTest {
                 bookingDto.getEnd().format(DateTimeFormatter.ofPattern("yyyy:MM:dd HH:mm:ss")));
         assertEquals(user.getName(), bookingDto.getBooker().getName());
         assertEquals(user.getEmail(), bookingDto.getBooker().getEmail());
+        InOrder inOrder = inOrder(itemRepository);
+        inOrder.verify(itemRepository).lockById(item.getId());
+        inOrder.verify(itemRepository, times(1)).findById(item.getId());
+        verify(userService, times(1)).getUserById(ownerId);
+        verify(userService, never()).requireExists(any());
 
 
         Item item2 = new Item(1L, "item", "item description", false, user, new ItemRequest());
@@ -105,6 +120,18 @@ public class BookingServiceImplTest {
         assertEquals("Некорректное введение времени бронирования.", thrown.getMessage());
     }
 
+    @Test
+    void createOverlappingBookingTest() {
+        when(userService.getUserById(any(Long.class))).thenReturn(userDto);
+        when(itemRepository.findById(any(Long.class))).thenReturn(Optional.of(item));
+        when(bookingRepository.findOverlappingIds(eq(item.getId()), any(), eq(bookingSaveDto.getStart()),
+                eq(bookingSaveDto.getEnd()), eq(PageRequest.of(0, 1)))).thenReturn(List.of(2L));
+
+        assertThrows(ConflictException.class, () -> bookingService.create(ownerId, bookingSaveDto));
+        verify(itemRepository).lockById(item.getId());
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
     @Test
     void updateTest() {
         when(bookingRepository.findById(any(Long.class))).thenReturn(Optional.of(booking));
@@ -142,7 +169,6 @@ public class BookingServiceImplTest {
 
     @Test
     void getByIdIfUserIsNotBookerAndNotOwnerTest() {
-        when(userService.getUserById(any(Long.class))).thenReturn(userDto);
         when(bookingRepository.findById(any(Long.class))).thenReturn(Optional.of(booking));
 
         Throwable thrown = catchThrowable(() -> bookingService.getById(2L, bookingId));
@@ -154,8 +180,7 @@ public class BookingServiceImplTest {
 
     @Test
     void getBookingsTest() {
-        Pageable pageable = PageRequest.of(1, 1);
-        when(userService.getUserById(userDto.getId())).thenReturn(userDto);
+        Pageable pageable = FromSizeRequest.of(from, size);
         when(bookingRepository.findByBookerIdOrderByStartDesc(userDto.getId(), pageable))
                 .thenReturn(List.of(booking));
 
@@ -230,8 +255,7 @@ public class BookingServiceImplTest {
 
     @Test
     void getOwnerBookingsTest() {
-        Pageable pageable = PageRequest.of(1, 1);
-        when(userService.getUserById(any(Long.class))).thenReturn(userDto);
+        Pageable pageable = FromSizeRequest.of(from, size);
         when(bookingRepository.findByItemOwnerIdOrderByStartDesc(userDto.getId(), pageable))
                 .thenReturn(List.of(booking));
 
@@ -303,4 +327,44 @@ public class BookingServiceImplTest {
                 () -> bookingService.getOwnerBookings(from, size, userDto.getId(), "ALLL"));
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void getBookingsByCursorTest() {
+        Booking older = new Booking(2L, booking.getStart().minusDays(1), booking.getEnd().minusDays(1),
+                item, user, Status.WAITING);
+        when(bookingRepository.findBookerPage(userDto.getId(), Cursor.FIRST.getTime(), Cursor.FIRST.getId(),
+                PageRequest.of(0, 2)))
+                .thenReturn(List.of(booking, older));
+
+        CursorPage<BookingDto> page = bookingService.getBookings("", 1, userDto.getId(), "ALL");
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(booking.getId(), page.getItems().get(0).getId());
+        assertEquals(new Cursor(booking.getStart(), booking.getId()), Cursor.decode(page.getNextCursor()));
+
+        when(bookingRepository.findBookerPage(userDto.getId(), booking.getStart(), booking.getId(),
+                PageRequest.of(0, 2)))
+                .thenReturn(List.of(older));
+
+        CursorPage<BookingDto> lastPage = bookingService.getBookings(page.getNextCursor(), 1, userDto.getId(), "ALL");
+
+        assertEquals(older.getId(), lastPage.getItems().get(0).getId());
+        assertNull(lastPage.getNextCursor());
+        assertThrows(BadRequestException.class,
+                () -> bookingService.getBookings("broken", 1, userDto.getId(), "ALL"));
+    }
+
+    @Test
+    void getOwnerBookingsByCursorTest() {
+        when(bookingRepository.findOwnerStatusPage(any(Long.class), any(LocalDateTime.class), any(Long.class),
+                any(Status.class), any(Pageable.class)))
+                .thenReturn(List.of(booking));
+
+        CursorPage<BookingDto> page = bookingService.getOwnerBookings("", 10, userDto.getId(), "WAITING");
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+        assertThrows(BadRequestException.class,
+                () -> bookingService.getOwnerBookings("", 10, userDto.getId(), "ALLL"));
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.dto.BookingDateDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
@@ -57,7 +58,7 @@ public class ItemControllerTest {
         itemDto = new ItemDto(1L, "item", "item description", true, 1L, 1L);
         commentDto = new CommentDto(1L, "commentDto", item, "userName", LocalDateTime.now());
         itemBookingDto = new ItemBookingDto(1L, "item", "Request", true,
-                new BookingDateDto(1L, 1L), new BookingDateDto(2L, 2L), List.of());
+                new BookingDateDto(1L, 1L), new BookingDateDto(2L, 2L), List.of(), 0);
         from = 1;
         size = 1;
         text = "text";
@@ -143,4 +144,21 @@ public class ItemControllerTest {
                 .andExpect(status().isOk());
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAvailabilityTest() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(2);
+        when(itemService.getAvailability(1L, from, to))
+                .thenReturn(List.of(new FreeSlotDto(from.plusDays(1), to)));
+
+        mockMvc.perform(get("/items/1/availability")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", "1")
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-03T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].start", is("2030-01-02T00:00:00")))
+                .andExpect(jsonPath("$[0].end", is("2030-01-03T00:00:00")));
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class InvertedIndexItemSearchEngineTest {
+    @InjectMocks
+    private InvertedIndexItemSearchEngine searchEngine;
+    @Mock
+    private ItemRepository itemRepository;
+    @Spy
+    private SearchProperties searchProperties = new SearchProperties();
+
+    private Item drill;
+    private Item saw;
+    private Item brokenDrill;
+
+    @BeforeEach
+    void setUp() {
+        User owner = new User(1L, "user", "user@email.ru");
+        drill = new Item(1L, "Дрель", "Аккумуляторная дрель", true, owner, null);
+        saw = new Item(2L, "Пила", "Аккумуляторная пила", true, owner, null);
+        brokenDrill = new Item(3L, "Дрель", "Сломанная дрель", false, owner, null);
+        searchEngine.index(drill);
+        searchEngine.index(saw);
+        searchEngine.index(brokenDrill);
+    }
+
+    @Test
+    void searchByPrefixSkipsUnavailableItemsTest() {
+        when(itemRepository.findAllById(List.of(1L))).thenReturn(List.of(drill));
+
+        List<Item> items = searchEngine.search("дРЕ", 0, 10);
+
+        assertEquals(List.of(drill), items);
+    }
+
+    @Test
+    void searchIntersectsTermsAndPagesTest() {
+        when(itemRepository.findAllById(List.of(2L))).thenReturn(List.of(saw));
+
+        assertEquals(List.of(saw), searchEngine.search("аккумуляторная", 1, 1));
+        assertTrue(searchEngine.search("аккумуляторная молоток", 0, 10).isEmpty());
+    }
+
+    @Test
+    void searchWithHugePageTest() {
+        when(itemRepository.findAllById(List.of(1L))).thenReturn(List.of(drill));
+
+        assertEquals(List.of(drill), searchEngine.search("дрель", 0, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void indexReplacesOldTokensTest() {
+        drill.setName("Перфоратор");
+        drill.setDescription("Мощный перфоратор");
+        searchEngine.index(drill);
+
+        assertTrue(searchEngine.search("дрель", 0, 10).isEmpty());
+        verify(itemRepository, never()).findAllById(any());
+
+        when(itemRepository.findAllById(List.of(1L))).thenReturn(List.of(drill));
+
+        assertEquals(List.of(drill), searchEngine.search("перфоратор", 0, 10));
+    }
+
+    @Test
+    void rankedSearchPrefersNameMatchesTest() {
+        User owner = new User(1L, "user", "user@email.ru");
+        Item battery = new Item(4L, "Аккумулятор", "Запасной аккумулятор для дрели", true, owner, null);
+        searchEngine.index(battery);
+        searchProperties.setRanked(true);
+        when(itemRepository.findAllById(List.of(4L, 1L))).thenReturn(List.of(drill, battery));
+        when(itemRepository.findAllById(List.of(2L))).thenReturn(List.of(saw));
+
+        assertEquals(List.of(battery, drill), searchEngine.search("аккумулятор", 0, 2));
+        assertEquals(List.of(saw), searchEngine.search("аккумулятор", 2, 2));
+    }
+
+    @Test
+    void rankedSearchWithHugePageTest() {
+        searchProperties.setRanked(true);
+        when(itemRepository.findAllById(List.of(1L))).thenReturn(List.of(drill));
+
+        assertEquals(List.of(drill), searchEngine.search("дрель", 0, Integer.MAX_VALUE));
+        assertTrue(searchEngine.search("дрель", Integer.MAX_VALUE, Integer.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    void searchItemWithIdBeyondIntRangeTest() {
+        User owner = new User(1L, "user", "user@email.ru");
+        Item hammer = new Item(Integer.MAX_VALUE + 10L, "Молоток", "Большой молоток", true, owner, null);
+        searchEngine.index(hammer);
+        when(itemRepository.findAllById(List.of(hammer.getId()))).thenReturn(List.of(hammer));
+
+        assertEquals(List.of(hammer), searchEngine.search("молоток", 0, 10));
+
+        searchProperties.setRanked(true);
+
+        assertEquals(List.of(hammer), searchEngine.search("молоток", 0, 10));
+    }
+}
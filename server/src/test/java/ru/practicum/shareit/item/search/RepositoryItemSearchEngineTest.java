@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.pagination.FromSizeRequest;
+
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class RepositoryItemSearchEngineTest {
+    @InjectMocks
+    private RepositoryItemSearchEngine searchEngine;
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Test
+    void searchStartsFromExactOffsetTest() {
+        searchEngine.search("дрель", 3, 2);
+
+        verify(itemRepository).searchItem("дрель", FromSizeRequest.of(3, 2));
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.FromSizeRequest;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Способ поиска trigram должен находить то же, что и поиск по умолчанию: подстроку без учета регистра
+ * среди доступных вещей, с символами % и _ в тексте запроса как обычными символами.
+ */
+@SpringBootTest(properties = "shareit.search.backend=trigram")
+class TrigramItemSearchEngineTest {
+    @Autowired
+    private ItemSearchEngine itemSearchEngine;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (1, 'owner', 'owner@email.ru')");
+        jdbcTemplate.batchUpdate("INSERT INTO items (id, name, description, available, owner_id) VALUES (?, ?, ?, ?, 1)",
+                List.of(new Object[]{1, "Дрель", "Аккумуляторная дрель", true},
+                        new Object[]{2, "Отвертка", "Крестовая, подходит к дрели", true},
+                        new Object[]{3, "Дрель ударная", "Сломана", false},
+                        new Object[]{4, "Футболка", "100% хлопок", true},
+                        new Object[]{5, "Ключ", "Размер 10_12", true},
+                        new Object[]{6, "Перфоратор", "Мощнее дрели", true}));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void trigramEngineIsSelectedTest() {
+        assertEquals(TrigramItemSearchEngine.class, itemSearchEngine.getClass());
+    }
+
+    @Test
+    void searchMatchesDefaultBackendTest() {
+        for (String text : List.of("дре", "ДРЕЛЬ", "дрели", "крестовая", "сломана", "перфоратор")) {
+            assertEquals(ids(itemRepository.searchItem(text, FromSizeRequest.of(0, 10))),
+                    ids(itemSearchEngine.search(text, 0, 10)), text);
+        }
+    }
+
+    @Test
+    void searchFindsShortSubstringsOfAvailableItemsTest() {
+        assertEquals(List.of(1L, 2L, 6L), ids(itemSearchEngine.search("дре", 0, 10)));
+    }
+
+    @Test
+    void searchEscapesWildcardsTest() {
+        assertEquals(List.of(4L), ids(itemSearchEngine.search("0%", 0, 10)));
+        assertEquals(List.of(5L), ids(itemSearchEngine.search("0_1", 0, 10)));
+        assertEquals(List.of(5L), ids(itemSearchEngine.search("_", 0, 10)));
+    }
+
+    @Test
+    void searchPagesFromExactOffsetTest() {
+        assertEquals(List.of(2L, 6L), ids(itemSearchEngine.search("дре", 1, 2)));
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream()
+                .map(Item::getId)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+}
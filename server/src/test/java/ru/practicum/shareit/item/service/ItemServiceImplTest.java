@@ -9,18 +9,27 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingItemDateDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemProperties;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.FromSizeRequest;
+import ru.practicum.shareit.pagination.IdCursor;
 import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.matching.RequestMatcher;
+import ru.practicum.shareit.request.service.RequestFeedCache;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
@@ -35,7 +44,10 @@ import java.util.Optional;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.catchThrowable;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -52,6 +64,16 @@ public class ItemServiceImplTest {
     private CommentRepository commentRepository;
     @Mock
     private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private ItemProperties itemProperties;
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+    @Mock
+    private MissingItemIds missingItemIds;
+    @Mock
+    private RequestMatcher requestMatcher;
+    @Mock
+    private RequestFeedCache requestFeedCache;
 
     private ItemDto itemDto;
     private Item item;
@@ -91,12 +113,13 @@ public class ItemServiceImplTest {
 
     @Test
     void getItems() {
-        Pageable pageable = PageRequest.of(from / size, size);
+        Pageable pageable = FromSizeRequest.of(from, size);
         Item item = new Item(1L, "item", "item test", true, user, null);
 
         when(itemRepository.findByOwnerIdOrderByIdAsc(1L, pageable)).thenReturn(Collections.singletonList(item));
-        when(bookingRepository.findAllByItemIdAndStatusOrderByEndAsc(1L, Status.APPROVED))
-                .thenReturn(List.of(lastBooking, nextBooking));
+        when(bookingRepository.findLastAndNextByItemIdIn(eq(List.of(1L)), eq(Status.APPROVED),
+                any(LocalDateTime.class)))
+                .thenReturn(List.of(toBookingItemDateDto(lastBooking), toBookingItemDateDto(nextBooking)));
 
         final List<ItemBookingDto> itemDtos = itemService.getItems(from, size, user.getId());
 
@@ -108,12 +131,64 @@ public class ItemServiceImplTest {
         assertEquals(item.getId(), itemDto.getId());
         assertEquals(item.getName(), itemDto.getName());
         assertEquals(item.getDescription(), itemDto.getDescription());
-        assertNotNull(itemDto.getLastBooking());
-        assertNotNull(itemDto.getNextBooking());
+        assertEquals(lastBooking.getId(), itemDto.getLastBooking().getId());
+        assertEquals(nextBooking.getId(), itemDto.getNextBooking().getId());
 
         assertThrows(NotFoundException.class, () -> itemService.getItems(from, size, 2L));
     }
 
+    @Test
+    void getItemsByCursorTest() {
+        Item otherItem = new Item(2L, "other", "other test", true, user, null);
+
+        when(itemRepository.findOwnerPage(1L, 0L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(item, otherItem));
+        when(itemRepository.findOwnerPage(1L, 2L, PageRequest.of(0, 2)))
+                .thenReturn(List.of());
+
+        CursorPage<ItemBookingDto> page = itemService.getItems("", 1, user.getId());
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(item.getId(), page.getItems().get(0).getId());
+        assertEquals(new IdCursor(item.getId()).encode(), page.getNextCursor());
+
+        CursorPage<ItemBookingDto> lastPage = itemService.getItems(new IdCursor(2L).encode(), 1, user.getId());
+
+        assertTrue(lastPage.getItems().isEmpty());
+        assertNull(lastPage.getNextCursor());
+        assertThrows(BadRequestException.class, () -> itemService.getItems("not a cursor", 1, user.getId()));
+    }
+
+    @Test
+    void getAvailabilityTest() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findIntervalsInRange(eq(1L), any(), eq(from), eq(to)))
+                .thenReturn(List.of(interval(from.minusDays(1), from.plusDays(1)),
+                        interval(from.plusDays(3), from.plusDays(5)),
+                        interval(from.plusDays(4), from.plusDays(6)),
+                        interval(from.plusDays(6), from.plusDays(7))));
+
+        List<FreeSlotDto> slots = itemService.getAvailability(1L, from, to);
+
+        assertEquals(List.of(new FreeSlotDto(from.plusDays(1), from.plusDays(3)),
+                new FreeSlotDto(from.plusDays(7), to)), slots);
+        assertThrows(BadRequestException.class, () -> itemService.getAvailability(1L, to, from));
+        assertThrows(NotFoundException.class, () -> itemService.getAvailability(2L, from, to));
+    }
+
+    @Test
+    void getAvailabilityWithoutBookingsTest() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(1);
+
+        when(itemRepository.existsById(1L)).thenReturn(true);
+
+        assertEquals(List.of(new FreeSlotDto(from, to)), itemService.getAvailability(1L, from, to));
+    }
+
     @Test
     void createItemTest() {
         when(userService.getUserById(userDto.getId())).thenReturn(userDto);
@@ -201,7 +276,6 @@ public class ItemServiceImplTest {
 
     @Test
     void updateItemTest() {
-        when(userService.getUserById(userDto.getId())).thenReturn(userDto);
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
 
         ItemDto updatedItem = itemService.update(1L, 1L, itemDto);
@@ -216,8 +290,9 @@ public class ItemServiceImplTest {
 
     @Test
     void getItemByIdTest() {
-        when(bookingRepository.findAllByItemIdAndStatusOrderByEndAsc(item.getId(), Status.APPROVED))
-                .thenReturn(List.of(lastBooking, nextBooking));
+        when(bookingRepository.findLastAndNextByItemIdIn(eq(List.of(item.getId())), eq(Status.APPROVED),
+                any(LocalDateTime.class)))
+                .thenReturn(List.of(toBookingItemDateDto(lastBooking), toBookingItemDateDto(nextBooking)));
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
 
         ItemBookingDto itemDto = itemService.getItemById(1L, 1L);
@@ -229,10 +304,47 @@ public class ItemServiceImplTest {
         assertNotNull(itemDto.getNextBooking());
     }
 
+    @Test
+    void getMissingItemByIdTest() {
+        when(itemRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> itemService.getItemById(1L, 2L));
+        verify(missingItemIds).add(2L);
+
+        when(missingItemIds.contains(2L)).thenReturn(true);
+
+        assertThrows(NotFoundException.class, () -> itemService.getItemById(1L, 2L));
+        verify(itemRepository, times(1)).findById(2L);
+    }
+
+    @Test
+    void getItemByIdWithCommentsLimitTest() {
+        Comment newComment = new Comment(2L, "new comment", item, user, LocalDateTime.now());
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(itemProperties.getCommentsLimit()).thenReturn(1);
+        when(commentRepository.findLatestIdsByItemIdIn(List.of(item.getId()), 1)).thenReturn(List.of(2L));
+        when(commentRepository.findAllByIdIn(List.of(2L))).thenReturn(List.of(newComment));
+        when(commentRepository.countByItemIdIn(List.of(item.getId()))).thenReturn(List.of(commentCount(2L)));
+
+        ItemBookingDto itemDto = itemService.getItemById(2L, item.getId());
+
+        assertEquals(1, itemDto.getComments().size());
+        assertEquals(newComment.getText(), itemDto.getComments().get(0).getText());
+        assertEquals(2L, itemDto.getCommentsCount());
+        assertNull(itemDto.getLastBooking());
+        assertNull(itemDto.getNextBooking());
+    }
+
     @Test
     void searchItemTest() {
         assertEquals(itemService.searchItem(from, size, ""), List.of());
 
+        when(itemSearchEngine.search("item", from, size)).thenReturn(List.of(item));
+
+        List<ItemDto> items = itemService.searchItem(from, size, "item");
+
+        assertEquals(1, items.size());
+        assertEquals(item.getId(), items.get(0).getId());
     }
 
     @Test
@@ -279,4 +391,37 @@ public class ItemServiceImplTest {
         assertEquals("Текст комментария не может быть пустым", thrown.getMessage());
 
     }
+
+    private BookingItemDateDto toBookingItemDateDto(Booking booking) {
+        return new BookingItemDateDto(booking.getItem().getId(), booking.getId(), booking.getBooker().getId(),
+                booking.getStart());
+    }
+
+    private CommentRepository.CommentCount commentCount(long total) {
+        return new CommentRepository.CommentCount() {
+            @Override
+            public Long getItemId() {
+                return item.getId();
+            }
+
+            @Override
+            public Long getTotal() {
+                return total;
+            }
+        };
+    }
+
+    private BookingRepository.BookingInterval interval(LocalDateTime start, LocalDateTime end) {
+        return new BookingRepository.BookingInterval() {
+            @Override
+            public LocalDateTime getStart() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return end;
+            }
+        };
+    }
 }
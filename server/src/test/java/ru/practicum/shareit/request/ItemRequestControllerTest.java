@@ -81,6 +81,18 @@ public class ItemRequestControllerTest {
 
     }
 
+    @Test
+    void getSuggestionsTest() throws Exception {
+        mockMvc.perform(get("/requests/suggestions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", userId)
+                        .param("from", "0")
+                        .param("size", "5"))
+                .andExpect(status().isOk());
+
+        verify(itemRequestService, Mockito.times(1)).getSuggestions(0, 5, userId);
+    }
+
     @Test
     void getItemRequestsWithResponses() throws Exception {
         mockMvc.perform(get("/requests")
@@ -88,6 +100,6 @@ public class ItemRequestControllerTest {
                         .header("X-Sharer-User-Id", userId))
                 .andExpect(status().isOk());
 
-        verify(itemRequestService, Mockito.times(1)).getItemRequestsWithResponses(userId);
+        verify(itemRequestService, Mockito.times(1)).getItemRequestsWithResponses(0, 10, userId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,123 @@
+package ru.practicum.shareit.request.matching;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.SuggestionRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.Suggestion;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RequestMatcherTest {
+    @Mock
+    private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private SuggestionRepository suggestionRepository;
+    private RequestMatcher requestMatcher;
+    private User requester;
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        RequestMatchingProperties properties = new RequestMatchingProperties();
+        properties.setOpenFor(Duration.ofDays(30));
+        requestMatcher = new RequestMatcher(itemRequestRepository, suggestionRepository, properties);
+        requester = new User(1L, "requester", "requester@email.ru");
+        owner = new User(2L, "owner", "owner@email.ru");
+    }
+
+    @Test
+    void matchByTokenOverlapTest() {
+        requestMatcher.add(request(1L, "Нужна электрическая дрель", LocalDateTime.now()));
+        requestMatcher.add(request(2L, "Ищу палатку для похода", LocalDateTime.now()));
+        requestMatcher.add(request(3L, "Дрель", LocalDateTime.now()));
+        requestMatcher.add(request(4L, "Ищу дрель ударную", LocalDateTime.now()));
+
+        Map<Long, RequestMatcher.Match> matches = requestMatcher.match(item(1L, "Дрель", "Электрическая дрель"));
+
+        assertEquals(Set.of(1L, 3L), matches.keySet());
+        assertEquals(2, matches.get(1L).getScore());
+        assertEquals(1, matches.get(3L).getScore());
+    }
+
+    @Test
+    void skipOwnAndExpiredRequestsTest() {
+        ItemRequest ownRequest = request(1L, "Электрическая дрель", LocalDateTime.now());
+        ownRequest.setRequester(owner);
+        requestMatcher.add(ownRequest);
+        requestMatcher.add(request(2L, "Электрическая дрель", LocalDateTime.now().minusDays(31)));
+
+        assertTrue(requestMatcher.match(item(1L, "Дрель", "Электрическая дрель")).isEmpty());
+        assertTrue(requestMatcher.match(item(2L, "Дрель", "Электрическая дрель")).isEmpty());
+    }
+
+    @Test
+    void suggestSavesNewMatchesTest() {
+        requestMatcher.add(request(1L, "Электрическая дрель", LocalDateTime.now()));
+        requestMatcher.add(request(2L, "Нужна электрическая дрель", LocalDateTime.now()));
+        requestMatcher.add(request(3L, "Дрель электрическая", LocalDateTime.now()));
+        when(suggestionRepository.findRequestIdsByItemId(1L)).thenReturn(List.of(2L));
+        when(itemRequestRepository.findExistingIds(any())).thenReturn(List.of(1L));
+
+        requestMatcher.suggest(item(1L, "Дрель", "Электрическая дрель"));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Suggestion>> captor = ArgumentCaptor.forClass(List.class);
+        verify(suggestionRepository).saveAll(captor.capture());
+        List<Suggestion> suggestions = captor.getValue();
+        assertEquals(1, suggestions.size());
+        assertEquals(1L, suggestions.get(0).getRequestId());
+        assertEquals(requester.getId(), suggestions.get(0).getRequesterId());
+        assertEquals(2, suggestions.get(0).getScore());
+        assertFalse(requestMatcher.match(item(2L, "Дрель", "Электрическая дрель")).containsKey(3L));
+    }
+
+    @Test
+    void suggestSkipsUnavailableItemTest() {
+        requestMatcher.add(request(1L, "Электрическая дрель", LocalDateTime.now()));
+        Item item = item(1L, "Дрель", "Электрическая дрель");
+        item.setAvailable(false);
+
+        requestMatcher.suggest(item);
+
+        verify(suggestionRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void suggestIgnoresConcurrentDuplicateTest() {
+        requestMatcher.add(request(1L, "Электрическая дрель", LocalDateTime.now()));
+        when(itemRequestRepository.findExistingIds(any())).thenReturn(List.of(1L));
+        when(suggestionRepository.saveAll(anyList()))
+                .thenThrow(new DataIntegrityViolationException("uq_suggestion"));
+
+        assertDoesNotThrow(() -> requestMatcher.suggest(item(1L, "Дрель", "Электрическая дрель")));
+    }
+
+    private ItemRequest request(Long id, String description, LocalDateTime created) {
+        return new ItemRequest(id, description, created, requester);
+    }
+
+    private Item item(Long id, String name, String description) {
+        return new Item(id, name, description, true, owner, null);
+    }
+}
@@ -6,13 +6,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.FromSizeRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.SuggestionRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestMapper;
 import ru.practicum.shareit.request.dto.ItemRequestSaveDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithResponsesDto;
+import ru.practicum.shareit.request.dto.SuggestionDto;
+import ru.practicum.shareit.request.matching.RequestMatcher;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
@@ -29,7 +37,13 @@ import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.catchThrowable;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,6 +56,12 @@ public class ItemRequestServiceImplTest {
     private UserService userService;
     @Mock
     private ItemRepository itemRepository;
+    @Mock
+    private SuggestionRepository suggestionRepository;
+    @Mock
+    private RequestMatcher requestMatcher;
+    @Mock
+    private RequestFeedCache requestFeedCache;
     private ItemRequest itemRequest;
     private ItemRequestSaveDto itemRequestSaveDto;
 
@@ -67,18 +87,20 @@ public class ItemRequestServiceImplTest {
     void getItemRequestsTest() {
         User otherUser = new User(2L, "otherUser", "user@email.ru");
         Item otherItem = new Item(1L, "item", "item test", true, otherUser, itemRequest);
+        ItemRequest unansweredRequest = new ItemRequest(2L, "unanswered", LocalDateTime.now(),
+                UserMapper.toUser(userDto));
 
-        when(itemRequestRepository.findAllByRequesterIdNot(any(Long.class), any()))
-                .thenReturn(Collections
-                        .singletonList(itemRequest));
+        when(itemRequestRepository.findAllByRequesterIdNotOrderByCreatedDescIdDesc(any(Long.class), any()))
+                .thenReturn(List.of(itemRequest, unansweredRequest));
 
-        when(itemRepository.findAllByRequestIsNotNull()).thenReturn(Collections
-                .singletonList(otherItem));
+        when(itemRepository.findAllByRequestIdIn(List.of(itemRequest.getId(), unansweredRequest.getId())))
+                .thenReturn(Collections.singletonList(otherItem));
 
         List<ItemRequestWithResponsesDto> itemRequests = itemRequestService.getItemRequests(from, size, 2L);
 
         assertNotNull(itemRequests);
-        assertEquals(1, itemRequests.size());
+        assertEquals(2, itemRequests.size());
+        assertTrue(itemRequests.get(1).getItems().isEmpty());
 
         ItemRequestWithResponsesDto itemRequestWithResponsesDto = itemRequests.get(0);
 
@@ -93,6 +115,42 @@ public class ItemRequestServiceImplTest {
 
     }
 
+    @Test
+    void getItemRequestsFromFeedCacheTest() {
+        List<ItemRequestWithResponsesDto> cached = List.of(ItemRequestMapper
+                .toItemRequestsWithResponsesDto(itemRequest));
+        when(requestFeedCache.page(eq(2L), eq(0), eq(10), any())).thenReturn(Optional.of(cached));
+
+        assertEquals(cached, itemRequestService.getItemRequests(0, 10, 2L));
+        verify(itemRequestRepository, never()).findAllByRequesterIdNotOrderByCreatedDescIdDesc(any(), any());
+    }
+
+    @Test
+    void getItemRequestsByCursorTest() {
+        ItemRequest olderRequest = new ItemRequest(2L, "older", itemRequest.getCreated().minusDays(1),
+                UserMapper.toUser(userDto));
+
+        when(itemRequestRepository.findFeedPage(2L, Cursor.FIRST.getTime(), Cursor.FIRST.getId(),
+                PageRequest.of(0, 2)))
+                .thenReturn(List.of(itemRequest, olderRequest));
+
+        CursorPage<ItemRequestWithResponsesDto> page = itemRequestService.getItemRequests("", 1, 2L);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(itemRequest.getId(), page.getItems().get(0).getId());
+        assertEquals(new Cursor(itemRequest.getCreated(), itemRequest.getId()).encode(), page.getNextCursor());
+
+        when(itemRequestRepository.findFeedPage(2L, itemRequest.getCreated(), itemRequest.getId(),
+                PageRequest.of(0, 2)))
+                .thenReturn(List.of(olderRequest));
+
+        CursorPage<ItemRequestWithResponsesDto> lastPage = itemRequestService
+                .getItemRequests(page.getNextCursor(), 1, 2L);
+
+        assertEquals(olderRequest.getId(), lastPage.getItems().get(0).getId());
+        assertNull(lastPage.getNextCursor());
+    }
+
     @Test
     void createItemRequestsTest() {
         when(userService.getUserById(userDto.getId())).thenReturn(userDto);
@@ -102,6 +160,8 @@ public class ItemRequestServiceImplTest {
 
         assertEquals(itemRequestSaveDto.getId(), itemRequestDto.getId());
         assertEquals(itemRequestSaveDto.getDescription(), itemRequestDto.getDescription());
+        verify(userService, times(1)).getUserById(1L);
+        verify(userService, never()).requireExists(any());
         assertEquals(LocalDateTime.now().format((DateTimeFormatter.ofPattern("yyyy:MM:dd HH:mm:ss"))),
                 itemRequestDto.getCreated().format((DateTimeFormatter.ofPattern("yyyy:MM:dd HH:mm:ss"))));
     }
@@ -128,17 +188,96 @@ public class ItemRequestServiceImplTest {
                 itemRequestWithResponsesDto.getCreated().format(DateTimeFormatter.ofPattern("yyyy:MM:dd HH:mm:ss")));
     }
 
+    @Test
+    void getItemRequestsWithResponsesByCursorTest() {
+        ItemRequest olderRequest = new ItemRequest(2L, "older", itemRequest.getCreated().minusDays(1),
+                UserMapper.toUser(userDto));
+
+        when(itemRequestRepository.findRequesterPage(userDto.getId(), Cursor.FIRST.getTime(), Cursor.FIRST.getId(),
+                PageRequest.of(0, 2)))
+                .thenReturn(List.of(itemRequest, olderRequest));
+        when(itemRepository.findAllByRequestIdIn(List.of(itemRequest.getId())))
+                .thenReturn(Collections.singletonList(item));
+
+        CursorPage<ItemRequestWithResponsesDto> page = itemRequestService
+                .getItemRequestsWithResponses("", 1, userDto.getId());
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(1, page.getItems().get(0).getItems().size());
+        assertEquals(new Cursor(itemRequest.getCreated(), itemRequest.getId()).encode(), page.getNextCursor());
+    }
+
+    @Test
+    void getSuggestionsTest() {
+        SuggestionRepository.SuggestionView suggestion = new SuggestionRepository.SuggestionView() {
+            @Override
+            public Long getId() {
+                return 1L;
+            }
+
+            @Override
+            public Long getRequestId() {
+                return itemRequest.getId();
+            }
+
+            @Override
+            public Integer getScore() {
+                return 2;
+            }
+
+            @Override
+            public LocalDateTime getCreated() {
+                return itemRequest.getCreated();
+            }
+
+            @Override
+            public Long getItemId() {
+                return item.getId();
+            }
+
+            @Override
+            public String getItemName() {
+                return item.getName();
+            }
+
+            @Override
+            public String getItemDescription() {
+                return item.getDescription();
+            }
+
+            @Override
+            public Boolean getItemAvailable() {
+                return item.getAvailable();
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return 2L;
+            }
+        };
+        when(suggestionRepository.findByRequesterId(userDto.getId(), FromSizeRequest.of(0, 10)))
+                .thenReturn(List.of(suggestion));
+
+        List<SuggestionDto> suggestions = itemRequestService.getSuggestions(0, 10, userDto.getId());
+
+        assertEquals(1, suggestions.size());
+        assertEquals(itemRequest.getId(), suggestions.get(0).getRequestId());
+        assertEquals(2, suggestions.get(0).getScore());
+        assertEquals(item.getName(), suggestions.get(0).getItem().getName());
+        assertEquals(2L, suggestions.get(0).getItem().getOwnerId());
+    }
+
     @Test
     void getItemRequestsWithResponses() {
         when(itemRequestRepository
-                .findAllByRequesterId(userDto.getId()))
+                .findAllByRequesterIdOrderByCreatedDescIdDesc(userDto.getId(), FromSizeRequest.of(from, size)))
                 .thenReturn(Collections.singletonList(itemRequest));
         when(itemRepository
-                .findAllByRequestId(userDto.getId()))
+                .findAllByRequestIdIn(List.of(itemRequest.getId())))
                 .thenReturn(Collections.singletonList(item));
 
         List<ItemRequestWithResponsesDto> itemRequests = itemRequestService
-                .getItemRequestsWithResponses(userDto.getId());
+                .getItemRequestsWithResponses(from, size, userDto.getId());
 
         assertNotNull(itemRequests);
         assertEquals(1, itemRequests.size());
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.request.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.request.dto.ItemRequestWithResponsesDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestFeedCacheTest {
+    private final LocalDateTime now = LocalDateTime.now();
+    private final AtomicInteger loads = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private RequestFeedCache requestFeedCache;
+    private List<RequestFeedCache.Entry> feed;
+    private IntFunction<List<RequestFeedCache.Entry>> loader;
+
+    @BeforeEach
+    void setUp() {
+        RequestFeedProperties properties = new RequestFeedProperties();
+        properties.setEnabled(true);
+        properties.setWindowSize(4);
+        meterRegistry = new SimpleMeterRegistry();
+        requestFeedCache = new RequestFeedCache(properties, meterRegistry);
+        feed = new ArrayList<>();
+        for (long id = 6; id >= 1; id--) {
+            feed.add(entry(2 - id % 2, id));
+        }
+        loader = windowSize -> {
+            loads.incrementAndGet();
+            return feed.stream().limit(windowSize).collect(Collectors.toList());
+        };
+    }
+
+    @Test
+    void pageExcludesOwnRequestsTest() {
+        List<ItemRequestWithResponsesDto> page = requestFeedCache.page(1L, 0, 2, loader).orElseThrow();
+
+        assertEquals(List.of(6L, 4L), ids(page));
+        assertEquals(List.of(5L, 3L), ids(requestFeedCache.page(2L, 0, 2, loader).orElseThrow()));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void pageWithHugeSizeTest() {
+        assertTrue(requestFeedCache.page(1L, 0, Integer.MAX_VALUE, loader).isEmpty());
+        assertTrue(requestFeedCache.page(1L, Cursor.FIRST, Integer.MAX_VALUE, loader).isEmpty());
+    }
+
+    @Test
+    void pageBeyondWindowIsMissTest() {
+        assertTrue(requestFeedCache.page(1L, 1, 2, loader).isEmpty());
+
+        assertEquals(0.0, meterRegistry.get("shareit.requests.feed_cache.hit_ratio").gauge().value());
+        assertEquals(1.0, meterRegistry.get("shareit.requests.feed_cache.requests")
+                .tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void completeWindowServesLastPageTest() {
+        feed = feed.subList(3, 6);
+
+        List<ItemRequestWithResponsesDto> page = requestFeedCache.page(1L, 0, 10, loader).orElseThrow();
+
+        assertEquals(List.of(2L), ids(page));
+        assertEquals(1.0, meterRegistry.get("shareit.requests.feed_cache.hit_ratio").gauge().value());
+    }
+
+    @Test
+    void cursorPageTest() {
+        CursorPage<ItemRequestWithResponsesDto> page = requestFeedCache.page(2L, Cursor.FIRST, 1, loader)
+                .orElseThrow();
+
+        assertEquals(List.of(5L), ids(page.getItems()));
+        assertEquals(new Cursor(now.minusHours(5), 5L).encode(), page.getNextCursor());
+        assertTrue(requestFeedCache.page(2L, Cursor.decode(page.getNextCursor()), 1, loader).isEmpty());
+    }
+
+    @Test
+    void invalidateReloadsWindowTest() {
+        requestFeedCache.page(1L, 0, 1, loader);
+        feed.add(0, entry(2L, 7L));
+
+        assertEquals(List.of(6L), ids(requestFeedCache.page(1L, 0, 1, loader).orElseThrow()));
+
+        requestFeedCache.invalidate();
+
+        assertEquals(List.of(7L), ids(requestFeedCache.page(1L, 0, 1, loader).orElseThrow()));
+        assertEquals(2, loads.get());
+    }
+
+    private RequestFeedCache.Entry entry(Long requesterId, Long id) {
+        return new RequestFeedCache.Entry(requesterId,
+                new ItemRequestWithResponsesDto(id, "request " + id, now.minusHours(id), List.of()));
+    }
+
+    private static List<Long> ids(List<ItemRequestWithResponsesDto> requests) {
+        return requests.stream()
+                .map(ItemRequestWithResponsesDto::getId)
+                .collect(Collectors.toList());
+    }
+}
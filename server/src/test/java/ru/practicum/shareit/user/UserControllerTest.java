@@ -11,18 +11,24 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.io.OutputStream;
 import java.util.Collections;
+import java.util.List;
 
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = UserController.class)
@@ -31,6 +37,8 @@ public class UserControllerTest {
     private ObjectMapper mapper;
     @MockBean
     private UserService userService;
+    @MockBean
+    private UserStreamer userStreamer;
     @Autowired
     private MockMvc mockMvc;
     private UserDto userDto, userDtoUpdate;
@@ -53,6 +61,36 @@ public class UserControllerTest {
         verify(userService, Mockito.times(1)).getUsers();
     }
 
+    @Test
+    void getUsersByCursorTest() throws Exception {
+        when(userService.getUsers("", 1)).thenReturn(new CursorPage<>(List.of(userDto), "next"));
+
+        mockMvc.perform(get("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .param("cursor", "")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(CursorPage.NEXT_CURSOR_HEADER, "next"))
+                .andExpect(jsonPath("$[0].id", is(userDto.getId()), Long.class));
+    }
+
+    @Test
+    void streamUsersTest() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write(mapper.writeValueAsBytes(List.of(userDto)));
+            return null;
+        }).when(userStreamer).writeAll(any());
+
+        MvcResult result = mockMvc.perform(get("/users/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].email", is(userDto.getEmail())));
+    }
+
     @Test
     void createNewUserTest() throws Exception {
         when(userService.create(any())).thenReturn(userDto);
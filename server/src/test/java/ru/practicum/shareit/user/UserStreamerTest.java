@@ -0,0 +1,98 @@
+package ru.practicum.shareit.user;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.ByteArrayOutputStream;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class UserStreamerTest {
+    @Autowired
+    private UserStreamer userStreamer;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private UserProperties userProperties;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void writeAllTest() throws Exception {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            users.add(new User(null, "user" + i, "user" + i + "@email.ru"));
+        }
+        userRepository.saveAll(users);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        userStreamer.writeAll(out);
+
+        List<UserDto> streamed = objectMapper.readValue(out.toByteArray(), new TypeReference<>() {
+        });
+        assertEquals(1200, streamed.size());
+        assertEquals("user0", streamed.get(0).getName());
+        assertEquals("user1199@email.ru", streamed.get(1199).getEmail());
+    }
+
+    @Test
+    void writeAllEmptyTest() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        userStreamer.writeAll(out);
+
+        assertEquals("[]", out.toString());
+    }
+
+    @Test
+    void writeAllFailedMidStreamTest() throws Exception {
+        JdbcTemplate failingJdbcTemplate = mock(JdbcTemplate.class);
+        doAnswer(invocation -> {
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getLong("id")).thenReturn(1L);
+            when(rs.getString("name")).thenReturn("user");
+            when(rs.getString("email")).thenReturn("user@email.ru");
+            invocation.<RowCallbackHandler>getArgument(1).processRow(rs);
+            throw new DataAccessResourceFailureException("Соединение с базой потеряно");
+        }).when(failingJdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        UserStreamer failingStreamer = new UserStreamer(failingJdbcTemplate, transactionManager, objectMapper,
+                userProperties);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThrows(DataAccessResourceFailureException.class, () -> failingStreamer.writeAll(out));
+
+        assertThrows(JsonProcessingException.class, () -> objectMapper.readValue(out.toByteArray(),
+                new TypeReference<List<UserDto>>() {
+                }));
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.user.email;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CountingBloomEmailFilterTest {
+    @Mock
+    private UserRepository userRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private CountingBloomEmailFilter emailFilter;
+
+    @BeforeEach
+    void setUp() {
+        EmailFilterProperties properties = new EmailFilterProperties();
+        properties.setExpectedUsers(10_000);
+        properties.setFalsePositiveRate(0.01);
+        meterRegistry = new SimpleMeterRegistry();
+        emailFilter = new CountingBloomEmailFilter(userRepository, properties, meterRegistry);
+    }
+
+    @Test
+    void buildFromRepositoryTest() {
+        when(userRepository.findEmailsByIdGreaterThan(0L, PageRequest.of(0, 1000)))
+                .thenReturn(List.of(email(1L, "user@email.ru"), email(2L, "other@email.ru")));
+
+        emailFilter.build();
+
+        assertTrue(emailFilter.mightContain("user@email.ru"));
+        assertTrue(emailFilter.mightContain("other@email.ru"));
+        assertFalse(emailFilter.mightContain("free@email.ru"));
+    }
+
+    @Test
+    void addAndRemoveTest() {
+        emailFilter.add("user@email.ru");
+        emailFilter.add("other@email.ru");
+
+        assertTrue(emailFilter.mightContain("user@email.ru"));
+
+        emailFilter.remove("user@email.ru");
+
+        assertFalse(emailFilter.mightContain("user@email.ru"));
+        assertTrue(emailFilter.mightContain("other@email.ru"));
+    }
+
+    @Test
+    void falsePositiveRateTest() {
+        for (int i = 0; i < 10_000; i++) {
+            emailFilter.add("user" + i + "@email.ru");
+        }
+        for (int i = 0; i < 10_000; i++) {
+            if (emailFilter.mightContain("free" + i + "@email.ru")) {
+                emailFilter.recordFalsePositive();
+            }
+        }
+
+        double rate = meterRegistry.get("shareit.users.email_filter.false_positive_rate").gauge().value();
+
+        assertTrue(rate > 0 && rate < 0.03, "Доля ложных срабатываний " + rate);
+        assertEquals(rate, emailFilter.falsePositiveRate());
+    }
+
+    private UserRepository.UserEmail email(Long id, String email) {
+        return new UserRepository.UserEmail() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getEmail() {
+                return email;
+            }
+        };
+    }
+}
@@ -6,10 +6,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.IdCursor;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.email.EmailFilter;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.Collections;
@@ -27,6 +34,12 @@ public class UserServiceImplTest {
     private UserServiceImpl userService;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private EmailFilter emailFilter;
+    @Mock
+    private KnownUserIds knownUserIds;
+    @Mock
+    private MissingUserIds missingUserIds;
     private User user;
 
     @BeforeEach
@@ -50,6 +63,38 @@ public class UserServiceImplTest {
         assertEquals(userDto.getEmail(), user.getEmail());
     }
 
+    @Test
+    void getUsersByCursorTest() {
+        User other = new User(2L, "other", "other@email.ru");
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(user, other));
+
+        CursorPage<UserDto> page = userService.getUsers("", 1);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(user.getId(), page.getItems().get(0).getId());
+        assertEquals(new IdCursor(user.getId()).encode(), page.getNextCursor());
+
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(user.getId(), PageRequest.of(0, 2)))
+                .thenReturn(List.of(other));
+
+        CursorPage<UserDto> lastPage = userService.getUsers(page.getNextCursor(), 1);
+
+        assertEquals(other.getId(), lastPage.getItems().get(0).getId());
+        assertNull(lastPage.getNextCursor());
+    }
+
+    @Test
+    void getUsersByCursorWithHugeSizeTest() {
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, CursorPage.MAX_SIZE + 1)))
+                .thenReturn(List.of(user));
+
+        CursorPage<UserDto> page = userService.getUsers("", Integer.MAX_VALUE);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
     @Test
     void createUserTest() {
         UserDto userToSave = new UserDto(1L, "user", "user@email.ru");
@@ -105,6 +150,31 @@ public class UserServiceImplTest {
 
     }
 
+    @Test
+    void updateUserWithTakenEmailTest() {
+        UserDto userDto = new UserDto(1L, "user", "taken@email.ru");
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(emailFilter.mightContain("taken@email.ru")).thenReturn(true);
+        when(userRepository.existsByEmail("taken@email.ru")).thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> userService.update(userDto, 1L));
+        verify(userRepository, never()).findAll();
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void updateUserEmailMaintainsFilterTest() {
+        UserDto userDto = new UserDto(1L, "user", "free@email.ru");
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(emailFilter.mightContain("free@email.ru")).thenReturn(true);
+
+        userService.update(userDto, 1L);
+
+        verify(emailFilter).recordFalsePositive();
+        verify(emailFilter).remove("user@email.ru");
+        verify(emailFilter).add("free@email.ru");
+    }
+
     @Test
     void getUserByIdTest() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
@@ -119,6 +189,37 @@ public class UserServiceImplTest {
         verify(userRepository, times(1)).findById(1L);
     }
 
+    @Test
+    void getMissingUserByIdTest() {
+        when(userRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> userService.getUserById(2L));
+        verify(missingUserIds).add(2L);
+
+        when(missingUserIds.contains(2L)).thenReturn(true);
+
+        assertThrows(NotFoundException.class, () -> userService.getUserById(2L));
+        assertThrows(NotFoundException.class, () -> userService.requireExists(2L));
+        verify(userRepository, times(1)).findById(2L);
+        verify(userRepository, never()).existsById(2L);
+        verify(missingUserIds, times(1)).add(2L);
+    }
+
+    @Test
+    void requireExistsTest() {
+        when(knownUserIds.contains(1L)).thenReturn(false, true);
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        userService.requireExists(1L);
+        userService.requireExists(1L);
+
+        verify(userRepository, times(1)).existsById(1L);
+        verify(knownUserIds).add(1L);
+
+        final var thrown = assertThrows(NotFoundException.class, () -> userService.requireExists(2L));
+        assertEquals("Пользователя с идентификатором 2 нет в базе.", thrown.getMessage());
+    }
+
     @Test
     void deleteUserTest() {
         when(userRepository.findById(user.getId())).thenReturn(Optional.ofNullable(user));
@@ -130,5 +231,29 @@ public class UserServiceImplTest {
         final List<UserDto> userDtos = userService.getUsers();
 
         assertEquals(0, userDtos.size());
+        verify(knownUserIds).remove(user.getId());
+        verify(missingUserIds).add(user.getId());
+        verify(emailFilter).remove(user.getEmail());
+    }
+
+    @Test
+    void deleteUserInvalidatesCachesAfterCommitTest() {
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userService.delete(user.getId());
+
+            verify(userRepository).deleteById(user.getId());
+            verify(knownUserIds, never()).remove(any());
+            verify(missingUserIds, never()).add(any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(knownUserIds).remove(user.getId());
+        verify(missingUserIds).add(user.getId());
+        verify(emailFilter).remove(user.getEmail());
     }
 }
\ No newline at end of file